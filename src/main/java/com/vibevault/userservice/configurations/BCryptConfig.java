@@ -1,14 +1,51 @@
 package com.vibevault.userservice.configurations;
 
+import com.vibevault.userservice.security.BCryptCost;
+import com.vibevault.userservice.security.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.security.crypto.scrypt.SCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 
 @Configuration
 public class BCryptConfig {
     @Bean
-    public PasswordEncoder bCryptPasswordEncoder() {
-        return new BCryptPasswordEncoder(14);
+    public PasswordEncoder bCryptPasswordEncoder(MeterRegistry meterRegistry,
+                                                 @Value("${auth.password-hashing.threads:0}") int threads,
+                                                 @Value("${auth.password-hashing.queue-capacity:64}") int queueCapacity,
+                                                 @Value("${auth.password-hashing.retry-after:1s}") Duration retryAfter,
+                                                 @Value("${auth.password-hashing.algorithm:bcrypt}") String algorithm,
+                                                 BCryptCost bcryptCost,
+                                                 @Value("${auth.password-hashing.pbkdf2.iterations:310000}") int pbkdf2Iterations,
+                                                 @Value("${auth.password-hashing.argon2.memory-kib:19456}") int argon2MemoryKib,
+                                                 @Value("${auth.password-hashing.argon2.iterations:2}") int argon2Iterations,
+                                                 @Value("${auth.password-hashing.scrypt.cpu-cost:65536}") int scryptCpuCost) {
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put("bcrypt", new BCryptPasswordEncoder(bcryptCost.get()));
+        encoders.put("pbkdf2", new Pbkdf2PasswordEncoder("", 16, pbkdf2Iterations,
+                Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+        encoders.put("argon2", new Argon2PasswordEncoder(16, 32, 1, argon2MemoryKib, argon2Iterations));
+        encoders.put("scrypt", new SCryptPasswordEncoder(scryptCpuCost, 8, 1, 32, 16));
+        if (!encoders.containsKey(algorithm)) {
+            throw new IllegalStateException("Unknown password hashing algorithm: " + algorithm);
+        }
+
+        // New hashes are stored as {id}hash; hashes written before the prefix existed are BCrypt
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(algorithm, encoders);
+        delegating.setDefaultPasswordEncoderForMatches(encoders.get("bcrypt"));
+
+        // Leave half the cores to request threads unless configured otherwise
+        int hashingThreads = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(delegating, hashingThreads, queueCapacity, retryAfter, meterRegistry);
     }
 }
@@ -4,11 +4,35 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.util.Optional;
 import java.util.UUID;
 
 @Configuration
 @EnableJpaAuditing
 public class JpaConfig {
 
+    /**
+     * The authenticated user behind a write, for createdBy/lastModifiedBy. Tokens issued by
+     * this service carry the user id as subject; anything else (anonymous requests, OAuth
+     * principals named by email, background jobs) leaves the audit fields to the caller.
+     */
+    @Bean
+    public AuditorAware<UUID> auditorAware() {
+        return () -> {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication == null || !authentication.isAuthenticated()
+                    || authentication instanceof AnonymousAuthenticationToken) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(UUID.fromString(authentication.getName()));
+            } catch (IllegalArgumentException e) {
+                return Optional.empty();
+            }
+        };
+    }
 }
\ No newline at end of file
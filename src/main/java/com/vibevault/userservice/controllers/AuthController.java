@@ -1,10 +1,16 @@
 package com.vibevault.userservice.controllers;
 
 import com.vibevault.userservice.dtos.auth.*;
+import com.vibevault.userservice.exceptions.auth.InvalidTokenException;
+import com.vibevault.userservice.exceptions.auth.RoleNotFoundException;
+import com.vibevault.userservice.exceptions.auth.TokenExpiredException;
+import com.vibevault.userservice.exceptions.auth.UserNotFoundException;
 import com.vibevault.userservice.models.Role;
 import com.vibevault.userservice.models.User;
 import com.vibevault.userservice.models.UserRole;
 import com.vibevault.userservice.services.AuthService;
+import com.vibevault.userservice.services.TokenValidationResult;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -13,11 +19,13 @@ import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
 @RestController
 @RequestMapping("/auth")
+@Slf4j
 public class AuthController {
     private AuthService authService;
 
@@ -75,14 +83,54 @@ public class AuthController {
             return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
         }
 
+        UserDto userDto = toUserDto(userRoleList);
+        if(userDto == null) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        return new ResponseEntity<>(userDto, HttpStatus.OK);
+    }
+
+    @PostMapping("/validate/batch")
+    public ResponseEntity<BatchValidateResponseDto> validateTokens(@RequestBody BatchValidateRequestDto batchValidateRequestDto){
+        List<String> tokens = batchValidateRequestDto.getTokens();
+        List<TokenValidationResult> results = authService.validateTokens(tokens);
+
+        List<TokenValidationResultDto> resultDtos = new ArrayList<>(results.size());
+        for (int i = 0; i < results.size(); i++) {
+            TokenValidationResult result = results.get(i);
+            UserDto userDto = result.isValid() ? toUserDto(result.userRoles()) : null;
+            if (userDto != null) {
+                resultDtos.add(new TokenValidationResultDto(i, true, userDto, null));
+            } else {
+                String error = result.isValid() ? "User not found" : errorMessage(result.error());
+                resultDtos.add(new TokenValidationResultDto(i, false, null, error));
+            }
+        }
+        return new ResponseEntity<>(new BatchValidateResponseDto(resultDtos), HttpStatus.OK);
+    }
+
+    // Only auth outcomes are reported per token; anything else stays in the log
+    private String errorMessage(RuntimeException error) {
+        if (error instanceof InvalidTokenException || error instanceof TokenExpiredException
+                || error instanceof UserNotFoundException || error instanceof RoleNotFoundException) {
+            return error.getMessage();
+        }
+        log.warn("Token validation failed", error);
+        return "Validation unavailable";
+    }
+
+    private UserDto toUserDto(List<UserRole> userRoleList) {
+        if(userRoleList == null || userRoleList.isEmpty()) {
+            return null;
+        }
         User user = userRoleList.getFirst().getUser();
+        if(user == null) {
+            return null;
+        }
         List<Role> roles = userRoleList.stream()
                 .map(UserRole::getRole)
                 .toList();
 
-        if(user == null) {
-            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
-        }
         UserDto userDto = new UserDto();
         userDto.setEmail(user.getEmail());
         userDto.setName(user.getFirstName() + " " + user.getLastName());
@@ -90,7 +138,7 @@ public class AuthController {
         userDto.setRoles(roles.stream()
                 .map(Role::getName)
                 .toList());
-        return new ResponseEntity<>(userDto, HttpStatus.OK);
+        return userDto;
     }
 
     @PostMapping("/logout")
@@ -0,0 +1,85 @@
+package com.vibevault.userservice.controllers;
+
+import com.vibevault.userservice.dtos.admin.UserImportErrorDto;
+import com.vibevault.userservice.dtos.admin.UserImportSummaryDto;
+import com.vibevault.userservice.models.UserRole;
+import com.vibevault.userservice.services.AuthService;
+import com.vibevault.userservice.services.UserImportFormat;
+import com.vibevault.userservice.services.UserImportService;
+import com.vibevault.userservice.services.UserImportSummary;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/auth/admin/users")
+public class UserImportController {
+    static final String NDJSON = "application/x-ndjson";
+    static final String CSV = "text/csv";
+
+    private UserImportService userImportService;
+    private AuthService authService;
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    public UserImportController(UserImportService userImportService,
+                                AuthService authService,
+                                JsonMapper jsonMapper) {
+        this.userImportService = userImportService;
+        this.authService = authService;
+        this.jsonMapper = jsonMapper;
+    }
+
+    /**
+     * Imports users from an NDJSON or CSV body. The response is NDJSON: one line per rejected
+     * row, written as rows are checked, then a summary line. The request body is read inside
+     * the streaming callback so neither side is held in memory.
+     */
+    @PostMapping(value = "/import", consumes = {NDJSON, CSV}, produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> importUsers(@RequestHeader("Authorization") String authToken,
+                                                             @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                             HttpServletRequest request) throws IOException {
+        List<UserRole> userRole = authService.validateToken(authToken);
+        if (userRole == null || userRole.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        if(userRole.stream().noneMatch(ur -> ur.getRole().getName().equals("ADMIN"))){
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+
+        UUID importedBy = userRole.get(0).getUser().getId();
+        UserImportFormat format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType(CSV))
+                ? UserImportFormat.CSV
+                : UserImportFormat.NDJSON;
+        Reader body = request.getReader();
+        StreamingResponseBody response = out -> {
+            UserImportSummary summary = userImportService.importUsers(body, format, importedBy,
+                    error -> writeLine(out, UserImportErrorDto.fromError(error)));
+            writeLine(out, UserImportSummaryDto.fromSummary(summary));
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(response);
+    }
+
+    private void writeLine(OutputStream out, Object line) {
+        try {
+            out.write(jsonMapper.writeValueAsBytes(line));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.vibevault.userservice.dtos.admin;
+
+import com.vibevault.userservice.services.UserImportError;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportErrorDto {
+    private long line;
+    private String email;
+    private String error;
+
+    public static UserImportErrorDto fromError(UserImportError error) {
+        return new UserImportErrorDto(error.line(), error.email(), error.message());
+    }
+}
@@ -0,0 +1,19 @@
+package com.vibevault.userservice.dtos.admin;
+
+import com.vibevault.userservice.services.UserImportSummary;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportSummaryDto {
+    private long rows;
+    private long created;
+    private long failed;
+
+    public static UserImportSummaryDto fromSummary(UserImportSummary summary) {
+        return new UserImportSummaryDto(summary.rows(), summary.created(), summary.failed());
+    }
+}
@@ -0,0 +1,16 @@
+package com.vibevault.userservice.dtos.auth;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchValidateRequestDto {
+    private List<String> tokens;
+}
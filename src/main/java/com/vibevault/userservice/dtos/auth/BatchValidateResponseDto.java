@@ -0,0 +1,17 @@
+package com.vibevault.userservice.dtos.auth;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchValidateResponseDto {
+    // One entry per requested token, in request order
+    private List<TokenValidationResultDto> results;
+}
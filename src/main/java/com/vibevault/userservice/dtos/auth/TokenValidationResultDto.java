@@ -0,0 +1,17 @@
+package com.vibevault.userservice.dtos.auth;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TokenValidationResultDto {
+    private int index;
+    private boolean valid;
+    private UserDto user;
+    private String error;
+}
@@ -0,0 +1,7 @@
+package com.vibevault.userservice.exceptions.auth;
+
+public class BatchTooLargeException extends RuntimeException {
+    public BatchTooLargeException(String message) {
+        super(message);
+    }
+}
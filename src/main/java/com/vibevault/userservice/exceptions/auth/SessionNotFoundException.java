@@ -0,0 +1,12 @@
+package com.vibevault.userservice.exceptions.auth;
+
+/**
+ * No active session row was found for a token. Unlike other invalid-token outcomes this
+ * one can change: with write-behind durability the session may still be queued on the
+ * instance that handled the login.
+ */
+public class SessionNotFoundException extends InvalidTokenException {
+    public SessionNotFoundException(String message) {
+        super(message);
+    }
+}
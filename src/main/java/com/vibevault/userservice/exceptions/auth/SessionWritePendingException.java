@@ -0,0 +1,11 @@
+package com.vibevault.userservice.exceptions.auth;
+
+/**
+ * The session for a token is accepted but could not be written yet, so it cannot be
+ * updated. The request can be retried.
+ */
+public class SessionWritePendingException extends RuntimeException {
+    public SessionWritePendingException(String message) {
+        super(message);
+    }
+}
@@ -1,7 +1,9 @@
 package com.vibevault.userservice.models;
 
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
 import lombok.*;
 
 @EqualsAndHashCode(callSuper = false)
@@ -10,6 +12,7 @@ import lombok.*;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity(name = "jwt")
+@Table(indexes = @Index(name = "idx_jwt_is_deleted_created_at", columnList = "isDeleted, createdAt"))
 public class JWT extends BaseModel{
     private String secret;
 
@@ -7,6 +7,12 @@ import java.util.Date;
 import java.util.List;
 
 @Entity(name = "sessions")
+@Table(indexes = {
+        @Index(name = "idx_sessions_token_hash_status", columnList = "tokenHash, status"),
+        @Index(name = "idx_sessions_status_last_modified_at", columnList = "status, lastModifiedAt"),
+        @Index(name = "idx_sessions_status_expired_at_id", columnList = "status, expiredAt, id"),
+        @Index(name = "idx_sessions_expired_at_id", columnList = "expiredAt, id")
+})
 @EqualsAndHashCode(callSuper = false)
 @Getter
 @Setter
@@ -17,7 +23,11 @@ public class Session extends BaseModel{
     private User user;
     @ManyToMany(fetch = FetchType.EAGER)
     private List<Role> role;
+    @Column(length = 2048)
     private String token;
+    // SHA-256 hex of token; lookups go through this instead of the raw JWT
+    @Column(columnDefinition = "CHAR(64)")
+    private String tokenHash;
     private String device;
     private String ipAddress;
     private Date expiredAt;
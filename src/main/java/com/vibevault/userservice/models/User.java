@@ -8,8 +8,10 @@ import java.util.List;
 
 @Entity(name = "users")
 @Table(indexes = {
-        @Index(name = "idx_user_email", columnList = "email"),
-        @Index(name = "idx_user_phonenumber", columnList = "phoneNumber")
+        @Index(name = "idx_user_email", columnList = "email")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uc_users_email", columnNames = "email"),
+        @UniqueConstraint(name = "uc_users_phone_number", columnNames = "phoneNumber")
 })
 @EqualsAndHashCode(callSuper = false)
 @Getter
@@ -20,7 +22,7 @@ public class User extends BaseModel{
     private String firstName;
     private String lastName;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
 
     @Column(nullable = false)
@@ -28,4 +30,16 @@ public class User extends BaseModel{
     private String password;
 
     private String phoneNumber;
+
+    // Self-registration has no acting user, so the new account is its own creator. The id
+    // is already generated when this runs, and the auditing listener has run before it.
+    @PrePersist
+    void auditSelfRegistration() {
+        if (getCreatedBy() == null) {
+            setCreatedBy(getId());
+        }
+        if (getLastModifiedBy() == null) {
+            setLastModifiedBy(getId());
+        }
+    }
 }
@@ -2,9 +2,15 @@ package com.vibevault.userservice.repositories;
 
 import com.vibevault.userservice.models.JWT;
 import org.springframework.data.jpa.repository.JpaRepository;
+import com.vibevault.userservice.repositories.projections.SigningSecret;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 
 import java.util.Optional;
@@ -23,4 +29,20 @@ public interface JWTRepository extends JpaRepository<JWT, UUID>{
 
     @Query(nativeQuery = true, value = "SELECT * FROM jwt WHERE user_id = ?1 AND is_deleted = ?2")
     List<JWT> findAllByUser_IdAndDeletedIs(UUID userId, boolean deleted);
+
+    @Query("select new com.vibevault.userservice.repositories.projections.SigningSecret(j.id, j.secret)" +
+            " from jwt j where j.id in :ids")
+    List<SigningSecret> findSecretsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    // Keyset pages of retired keys created before the cutoff, for the purge job
+    @Query("select j.id from jwt j" +
+            " where j.isDeleted = true and j.createdAt < :cutoff and j.id > :after" +
+            " order by j.id")
+    List<UUID> findRetiredIdsCreatedBefore(@Param("cutoff") Date cutoff,
+                                           @Param("after") UUID after,
+                                           Limit limit);
+
+    @Modifying
+    @Query("delete from jwt j where j.id in :ids and j.isDeleted = true")
+    int deleteRetiredByIdIn(@Param("ids") Collection<UUID> ids);
 }
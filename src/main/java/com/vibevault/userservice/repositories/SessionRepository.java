@@ -2,9 +2,17 @@ package com.vibevault.userservice.repositories;
 
 import com.vibevault.userservice.models.Session;
 import com.vibevault.userservice.models.SessionStatus;
+import com.vibevault.userservice.repositories.projections.SessionExpiryKey;
+import com.vibevault.userservice.repositories.projections.SessionValidationRow;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,5 +23,77 @@ public interface SessionRepository extends JpaRepository<Session, UUID> {
     @Override
     <S extends Session> S save(S entity);
 
-    Optional<Session> findSessionsByTokenEqualsAndStatusIs(String token, SessionStatus status);
+    Optional<Session> findSessionsByTokenHashEqualsAndStatusIs(String tokenHash, SessionStatus status);
+
+    @Query("select new com.vibevault.userservice.repositories.projections.SessionValidationRow(" +
+            " s.id, s.token, s.expiredAt, s.isDeleted, s.status," +
+            " u.id, u.email, u.firstName, u.lastName, u.phoneNumber, u.isDeleted," +
+            " sr.id, sr.name, sr.isDeleted," +
+            " ur.id, r.id, r.name, r.isDeleted," +
+            " j.secret)" +
+            " from sessions s" +
+            " join s.user u" +
+            " left join s.role sr" +
+            " left join user_roles ur on ur.user = u" +
+            " left join ur.role r" +
+            " left join jwt j on j.id = :kid" +
+            " where s.tokenHash = :tokenHash and s.status = :status")
+    List<SessionValidationRow> findValidationRows(@Param("tokenHash") String tokenHash,
+                                                  @Param("status") SessionStatus status,
+                                                  @Param("kid") UUID kid);
+
+    @Query("select distinct s from sessions s" +
+            " join fetch s.user" +
+            " left join fetch s.role" +
+            " where s.tokenHash in :tokenHashes and s.status = :status")
+    List<Session> findAllForValidation(@Param("tokenHashes") Collection<String> tokenHashes,
+                                       @Param("status") SessionStatus status);
+
+    @Query("select s.tokenHash from sessions s" +
+            " where s.status in :statuses and s.lastModifiedAt >= :since and s.expiredAt > :now" +
+            " and s.tokenHash is not null")
+    List<String> findRevokedTokenHashes(@Param("statuses") Collection<SessionStatus> statuses,
+                                        @Param("since") Date since,
+                                        @Param("now") Date now);
+
+    // Keyset pages for the session sweeper, in (expiredAt, id) order so each page is a range
+    // read of the expiry indexes rather than a re-sort of every remaining candidate.
+    // The expiredAt >= bound comes first so MySQL can use it as the index range.
+    String AFTER_EXPIRY_KEY = " s.expiredAt >= :afterExpiredAt" +
+            " and (s.expiredAt > :afterExpiredAt or s.id > :afterId)";
+
+    @Query("select new com.vibevault.userservice.repositories.projections.SessionExpiryKey(s.id, s.expiredAt)" +
+            " from sessions s" +
+            " where s.status = :status and s.expiredAt < :cutoff and" + AFTER_EXPIRY_KEY +
+            " order by s.expiredAt, s.id")
+    List<SessionExpiryKey> findKeysByStatusExpiredBefore(@Param("status") SessionStatus status,
+                                                         @Param("cutoff") Date cutoff,
+                                                         @Param("afterExpiredAt") Date afterExpiredAt,
+                                                         @Param("afterId") UUID afterId,
+                                                         Limit limit);
+
+    @Query("select new com.vibevault.userservice.repositories.projections.SessionExpiryKey(s.id, s.expiredAt)" +
+            " from sessions s" +
+            " where s.expiredAt < :cutoff and" + AFTER_EXPIRY_KEY +
+            " order by s.expiredAt, s.id")
+    List<SessionExpiryKey> findKeysExpiredBefore(@Param("cutoff") Date cutoff,
+                                                 @Param("afterExpiredAt") Date afterExpiredAt,
+                                                 @Param("afterId") UUID afterId,
+                                                 Limit limit);
+
+    @Modifying
+    @Query("update versioned sessions s set s.status = :expired, s.lastModifiedAt = :now" +
+            " where s.id in :ids and s.status = :active")
+    int markExpired(@Param("ids") Collection<UUID> ids,
+                    @Param("active") SessionStatus active,
+                    @Param("expired") SessionStatus expired,
+                    @Param("now") Date now);
+
+    @Modifying
+    @Query(value = "DELETE FROM sessions_role WHERE sessions_id IN (:ids)", nativeQuery = true)
+    int deleteSessionRoles(@Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("delete from sessions s where s.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<UUID> ids);
 }
@@ -1,9 +1,15 @@
 package com.vibevault.userservice.repositories;
 
 import com.vibevault.userservice.models.User;
+import com.vibevault.userservice.repositories.projections.UserIdentity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -17,6 +23,25 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     Optional<User> findUserByPhoneNumber(String phoneNumber);
 
+    @Query("select new com.vibevault.userservice.repositories.projections.UserIdentity(u.email, u.phoneNumber)" +
+            " from users u where u.email = :email or u.phoneNumber = :phoneNumber")
+    List<UserIdentity> findIdentitiesByEmailOrPhoneNumber(@Param("email") String email,
+                                                          @Param("phoneNumber") String phoneNumber);
+
+    @Query("select new com.vibevault.userservice.repositories.projections.UserIdentity(u.email, u.phoneNumber)" +
+            " from users u where u.email in :emails or u.phoneNumber in :phoneNumbers")
+    List<UserIdentity> findIdentitiesByEmailInOrPhoneNumberIn(@Param("emails") Collection<String> emails,
+                                                              @Param("phoneNumbers") Collection<String> phoneNumbers);
+
     @Override
     <S extends User> S save(S entity);
+
+    // Compare-and-set on the old hash and no version bump, so concurrent upgrades of the
+    // same user neither conflict with each other nor with unrelated updates of the row
+    @Transactional
+    @Modifying
+    @Query("update users u set u.password = :newHash where u.id = :id and u.password = :oldHash")
+    int updatePasswordHash(@Param("id") UUID id,
+                           @Param("oldHash") String oldHash,
+                           @Param("newHash") String newHash);
 }
@@ -2,7 +2,10 @@ package com.vibevault.userservice.repositories;
 
 import com.vibevault.userservice.models.UserRole;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,4 +17,11 @@ public interface UserRoleRepository extends JpaRepository<UserRole, UUID> {
 
     Optional<List<UserRole>> findUserRoleByUser_Id(UUID userId);
     boolean existsByUser_IdAndRole_Id(UUID userId, UUID roleId);
+
+    @Query("select ur from user_roles ur" +
+            " join fetch ur.user" +
+            " left join fetch ur.role" +
+            " left join fetch ur.assignedBy" +
+            " where ur.user.id in :userIds")
+    List<UserRole> findAllWithRoleByUserIds(@Param("userIds") Collection<UUID> userIds);
 }
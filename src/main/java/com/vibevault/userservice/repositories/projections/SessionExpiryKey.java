@@ -0,0 +1,10 @@
+package com.vibevault.userservice.repositories.projections;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Position of a session in expiry order, used as the keyset cursor by the session sweeper.
+ */
+public record SessionExpiryKey(UUID id, Date expiredAt) {
+}
@@ -0,0 +1,32 @@
+package com.vibevault.userservice.repositories.projections;
+
+import com.vibevault.userservice.models.SessionStatus;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * One row of the validation fetch: the session and its user, crossed with the
+ * session's roles and the user's current role assignments, plus the signing secret
+ * for the token's kid (null when the kid is unknown).
+ */
+public record SessionValidationRow(UUID sessionId,
+                                   String token,
+                                   Date expiredAt,
+                                   boolean sessionDeleted,
+                                   SessionStatus status,
+                                   UUID userId,
+                                   String email,
+                                   String firstName,
+                                   String lastName,
+                                   String phoneNumber,
+                                   boolean userDeleted,
+                                   UUID sessionRoleId,
+                                   String sessionRoleName,
+                                   Boolean sessionRoleDeleted,
+                                   UUID userRoleId,
+                                   UUID roleId,
+                                   String roleName,
+                                   Boolean roleDeleted,
+                                   String signingSecret) {
+}
@@ -0,0 +1,78 @@
+package com.vibevault.userservice.repositories.projections;
+
+import com.vibevault.userservice.models.Role;
+import com.vibevault.userservice.models.Session;
+import com.vibevault.userservice.models.User;
+import com.vibevault.userservice.models.UserRole;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Everything token validation needs about a session, assembled from the rows of a
+ * single fetch. The entities are detached copies and are never written back.
+ */
+public record SessionValidationView(Session session, List<UserRole> userRoles, String signingSecret) {
+
+    public static Optional<SessionValidationView> from(List<SessionValidationRow> rows) {
+        if (rows == null || rows.isEmpty()) {
+            return Optional.empty();
+        }
+        SessionValidationRow first = rows.getFirst();
+
+        User user = new User();
+        user.setId(first.userId());
+        user.setEmail(first.email());
+        user.setFirstName(first.firstName());
+        user.setLastName(first.lastName());
+        user.setPhoneNumber(first.phoneNumber());
+        user.setDeleted(first.userDeleted());
+
+        Map<UUID, Role> sessionRoles = new LinkedHashMap<>();
+        Map<UUID, UserRole> userRoles = new LinkedHashMap<>();
+        String signingSecret = null;
+        for (SessionValidationRow row : rows) {
+            if (row.sessionRoleId() != null) {
+                sessionRoles.computeIfAbsent(row.sessionRoleId(), id ->
+                        role(id, row.sessionRoleName(), row.sessionRoleDeleted()));
+            }
+            if (row.userRoleId() != null) {
+                userRoles.computeIfAbsent(row.userRoleId(), id -> {
+                    UserRole userRole = new UserRole();
+                    userRole.setId(id);
+                    userRole.setUser(user);
+                    if (row.roleId() != null) {
+                        userRole.setRole(role(row.roleId(), row.roleName(), row.roleDeleted()));
+                    }
+                    return userRole;
+                });
+            }
+            if (row.signingSecret() != null) {
+                signingSecret = row.signingSecret();
+            }
+        }
+
+        Session session = new Session();
+        session.setId(first.sessionId());
+        session.setToken(first.token());
+        session.setExpiredAt(first.expiredAt());
+        session.setDeleted(first.sessionDeleted());
+        session.setStatus(first.status());
+        session.setUser(user);
+        session.setRole(new ArrayList<>(sessionRoles.values()));
+
+        return Optional.of(new SessionValidationView(session, new ArrayList<>(userRoles.values()), signingSecret));
+    }
+
+    private static Role role(UUID id, String name, Boolean deleted) {
+        Role role = new Role();
+        role.setId(id);
+        role.setName(name);
+        role.setDeleted(Boolean.TRUE.equals(deleted));
+        return role;
+    }
+}
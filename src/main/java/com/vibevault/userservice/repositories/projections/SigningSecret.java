@@ -0,0 +1,9 @@
+package com.vibevault.userservice.repositories.projections;
+
+import java.util.UUID;
+
+/**
+ * The id and encoded secret of a jwt row, without the owning user.
+ */
+public record SigningSecret(UUID id, String secret) {
+}
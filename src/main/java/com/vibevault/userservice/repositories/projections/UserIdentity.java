@@ -0,0 +1,7 @@
+package com.vibevault.userservice.repositories.projections;
+
+/**
+ * The unique identifiers of an existing user, as read by the signup probe.
+ */
+public record UserIdentity(String email, String phoneNumber) {
+}
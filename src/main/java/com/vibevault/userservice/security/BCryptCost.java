@@ -0,0 +1,82 @@
+package com.vibevault.userservice.security;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.IntToLongFunction;
+
+/**
+ * The BCrypt cost used for new hashes. With calibration on, it is measured once at
+ * startup on the CPU the pod actually landed on: the cheapest allowed cost is timed and
+ * the highest cost whose extrapolated time (each step doubles the work) stays within the
+ * target latency is chosen. Stored hashes with a lower cost are upgraded on login;
+ * stronger stored hashes are never weakened.
+ */
+@Slf4j
+@Component
+public class BCryptCost {
+    private static final int SAMPLES = 3;
+
+    private final int cost;
+
+    @Autowired
+    public BCryptCost(MeterRegistry meterRegistry,
+                      @Value("${auth.password-hashing.bcrypt.calibrate:true}") boolean calibrate,
+                      @Value("${auth.password-hashing.bcrypt.cost:14}") int configuredCost,
+                      @Value("${auth.password-hashing.bcrypt.target-latency:250ms}") Duration targetLatency,
+                      @Value("${auth.password-hashing.bcrypt.min-cost:10}") int minCost,
+                      @Value("${auth.password-hashing.bcrypt.max-cost:16}") int maxCost) {
+        this(meterRegistry, calibrate, configuredCost, targetLatency, minCost, maxCost, BCryptCost::timeEncode);
+    }
+
+    BCryptCost(MeterRegistry meterRegistry,
+               boolean calibrate,
+               int configuredCost,
+               Duration targetLatency,
+               int minCost,
+               int maxCost,
+               IntToLongFunction encodeNanos) {
+        if (calibrate) {
+            this.cost = calibrate(targetLatency, minCost, maxCost, encodeNanos);
+            log.info("Calibrated BCrypt cost {} for a {} ms target", cost, targetLatency.toMillis());
+        } else {
+            this.cost = configuredCost;
+        }
+        Gauge.builder("auth.password.hash.bcrypt.cost", this, BCryptCost::get)
+                .description("BCrypt cost used for new password hashes")
+                .register(meterRegistry);
+    }
+
+    public int get() {
+        return cost;
+    }
+
+    private static int calibrate(Duration targetLatency, int minCost, int maxCost, IntToLongFunction encodeNanos) {
+        // Best of a few runs, so JIT warm-up and a noisy neighbour do not inflate the baseline
+        long baseline = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            baseline = Math.min(baseline, encodeNanos.applyAsLong(minCost));
+        }
+        long target = targetLatency.toNanos();
+        int chosen = minCost;
+        long predicted = baseline;
+        while (chosen < maxCost && predicted * 2 <= target) {
+            chosen++;
+            predicted *= 2;
+        }
+        return chosen;
+    }
+
+    private static long timeEncode(int cost) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(cost);
+        long start = System.nanoTime();
+        encoder.encode("bcrypt-calibration");
+        return System.nanoTime() - start;
+    }
+}
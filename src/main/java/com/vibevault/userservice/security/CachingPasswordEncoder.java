@@ -0,0 +1,90 @@
+package com.vibevault.userservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.HexFormat;
+
+/**
+ * Remembers successful matches of a delegate encoder for a short time, so a client that
+ * authenticates with the same secret on every token request pays for one slow hash per
+ * TTL instead of one per request. Only used for OAuth2 client secrets; user passwords
+ * always go to the delegate.
+ *
+ * The cache key is an HMAC, under a random per-process key, of the presented secret and
+ * the stored hash, so neither raw secrets nor anything that can be checked offline is
+ * kept in memory. The stored hash is salted per client, which scopes each entry to one
+ * client, and rotating a secret changes the hash so old entries can never match again.
+ * Failed matches are not cached.
+ */
+public class CachingPasswordEncoder implements PasswordEncoder {
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final PasswordEncoder delegate;
+    private final SecretKeySpec cacheKey;
+    private final Cache<String, Boolean> verified;
+
+    public CachingPasswordEncoder(PasswordEncoder delegate, Duration ttl, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.cacheKey = new SecretKeySpec(key, "HmacSHA256");
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.verified, "client-secrets");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegate.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+        String key = cacheKey(rawPassword, encodedPassword);
+        if (verified.getIfPresent(key) != null) {
+            return true;
+        }
+        boolean matches = delegate.matches(rawPassword, encodedPassword);
+        if (matches) {
+            verified.put(key, Boolean.TRUE);
+        }
+        return matches;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private String cacheKey(CharSequence rawPassword, String encodedPassword) {
+        byte[] raw = rawPassword.toString().getBytes(StandardCharsets.UTF_8);
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(cacheKey);
+            // Length prefix so no (secret, hash) pair can be re-split into another
+            mac.update(ByteBuffer.allocate(Integer.BYTES).putInt(raw.length).array());
+            mac.update(raw);
+            mac.update(encodedPassword.getBytes(StandardCharsets.UTF_8));
+            return HEX.formatHex(mac.doFinal());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 not available", e);
+        }
+    }
+}
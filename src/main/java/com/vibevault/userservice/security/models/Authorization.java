@@ -5,12 +5,21 @@ import java.time.Instant;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
 
 @Entity
-@Table(name = "authorization")
+@Table(name = "authorization", indexes = {
+        @Index(name = "uk_authorization_state_hash", columnList = "stateHash", unique = true),
+        @Index(name = "uk_authorization_authorization_code_hash", columnList = "authorizationCodeHash", unique = true),
+        @Index(name = "uk_authorization_access_token_hash", columnList = "accessTokenHash", unique = true),
+        @Index(name = "uk_authorization_refresh_token_hash", columnList = "refreshTokenHash", unique = true),
+        @Index(name = "uk_authorization_oidc_id_token_hash", columnList = "oidcIdTokenHash", unique = true),
+        @Index(name = "uk_authorization_user_code_hash", columnList = "userCodeHash", unique = true),
+        @Index(name = "uk_authorization_device_code_hash", columnList = "deviceCodeHash", unique = true)
+})
 @Getter
 @Setter
 public class Authorization {
@@ -26,9 +35,14 @@ public class Authorization {
     private String attributes;
     @Column(length = 500)
     private String state;
+    // SHA-256 hex of each token value; findByToken looks these up instead of the TEXT columns
+    @Column(columnDefinition = "CHAR(64)")
+    private String stateHash;
 
     @Column(length = 4000)
     private String authorizationCodeValue;
+    @Column(columnDefinition = "CHAR(64)")
+    private String authorizationCodeHash;
     private Instant authorizationCodeIssuedAt;
     private Instant authorizationCodeExpiresAt;
     @Column(length = 2000)
@@ -36,6 +50,8 @@ public class Authorization {
 
     @Column(length = 4000)
     private String accessTokenValue;
+    @Column(columnDefinition = "CHAR(64)")
+    private String accessTokenHash;
     private Instant accessTokenIssuedAt;
     private Instant accessTokenExpiresAt;
     @Column(length = 2000)
@@ -46,6 +62,8 @@ public class Authorization {
 
     @Column(length = 4000)
     private String refreshTokenValue;
+    @Column(columnDefinition = "CHAR(64)")
+    private String refreshTokenHash;
     private Instant refreshTokenIssuedAt;
     private Instant refreshTokenExpiresAt;
     @Column(length = 2000)
@@ -53,6 +71,8 @@ public class Authorization {
 
     @Column(length = 4000)
     private String oidcIdTokenValue;
+    @Column(columnDefinition = "CHAR(64)")
+    private String oidcIdTokenHash;
     private Instant oidcIdTokenIssuedAt;
     private Instant oidcIdTokenExpiresAt;
     @Column(length = 2000)
@@ -62,6 +82,8 @@ public class Authorization {
 
     @Column(length = 4000)
     private String userCodeValue;
+    @Column(columnDefinition = "CHAR(64)")
+    private String userCodeHash;
     private Instant userCodeIssuedAt;
     private Instant userCodeExpiresAt;
     @Column(length = 2000)
@@ -69,8 +91,14 @@ public class Authorization {
 
     @Column(length = 4000)
     private String deviceCodeValue;
+    @Column(columnDefinition = "CHAR(64)")
+    private String deviceCodeHash;
     private Instant deviceCodeIssuedAt;
     private Instant deviceCodeExpiresAt;
     @Column(length = 2000)
     private String deviceCodeMetadata;
+
+    // Time of the last save; how long an authorization without tokens has waited for consent
+    @Column(nullable = false)
+    private Instant updatedAt;
 }
\ No newline at end of file
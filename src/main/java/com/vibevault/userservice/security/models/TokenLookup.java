@@ -0,0 +1,61 @@
+package com.vibevault.userservice.security.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * One row per token value held by an authorization, keyed by the value's SHA-256 hex, so
+ * a lookup that does not know the token type is a single primary-key read.
+ */
+@Entity
+@Table(name = "token_lookup", indexes = {
+        @Index(name = "idx_token_lookup_authorization_id", columnList = "authorizationId")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class TokenLookup implements Persistable<String> {
+    @Id
+    @Column(columnDefinition = "CHAR(64)")
+    private String tokenHash;
+    @Column(nullable = false)
+    private String authorizationId;
+    @Column(length = 32, nullable = false)
+    private String tokenType;
+
+    // Rows are only ever inserted or deleted, so save() can skip the select merge() would do
+    @Transient
+    private boolean isNew = true;
+
+    public TokenLookup(String tokenHash, String authorizationId, String tokenType) {
+        this.tokenHash = tokenHash;
+        this.authorizationId = authorizationId;
+        this.tokenType = tokenType;
+    }
+
+    @Override
+    public String getId() {
+        return tokenHash;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+}
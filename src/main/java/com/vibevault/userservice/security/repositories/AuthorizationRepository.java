@@ -1,29 +1,52 @@
 package com.vibevault.userservice.security.repositories;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 import com.vibevault.userservice.security.models.Authorization;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface AuthorizationRepository extends JpaRepository<Authorization, String> {
-    Optional<Authorization> findByState(String state);
-    Optional<Authorization> findByAuthorizationCodeValue(String authorizationCode);
-    Optional<Authorization> findByAccessTokenValue(String accessToken);
-    Optional<Authorization> findByRefreshTokenValue(String refreshToken);
-    Optional<Authorization> findByOidcIdTokenValue(String idToken);
-    Optional<Authorization> findByUserCodeValue(String userCode);
-    Optional<Authorization> findByDeviceCodeValue(String deviceCode);
-    @Query("select a from Authorization a where a.state = :token" +
-            " or a.authorizationCodeValue = :token" +
-            " or a.accessTokenValue = :token" +
-            " or a.refreshTokenValue = :token" +
-            " or a.oidcIdTokenValue = :token" +
-            " or a.userCodeValue = :token" +
-            " or a.deviceCodeValue = :token"
-    )
-    Optional<Authorization> findByStateOrAuthorizationCodeValueOrAccessTokenValueOrRefreshTokenValueOrOidcIdTokenValueOrUserCodeValueOrDeviceCodeValue(@Param("token") String token);
-}
\ No newline at end of file
+    Optional<Authorization> findByStateHash(String stateHash);
+    Optional<Authorization> findByAuthorizationCodeHash(String authorizationCodeHash);
+    Optional<Authorization> findByAccessTokenHash(String accessTokenHash);
+    Optional<Authorization> findByRefreshTokenHash(String refreshTokenHash);
+    Optional<Authorization> findByOidcIdTokenHash(String oidcIdTokenHash);
+    Optional<Authorization> findByUserCodeHash(String userCodeHash);
+    Optional<Authorization> findByDeviceCodeHash(String deviceCodeHash);
+
+    // Every token the authorization holds expired before the cutoff, and it holds at least
+    // one; or it holds none and was last saved before abandonedBefore (consent never given)
+    String PURGEABLE =
+            " ((a.authorizationCodeExpiresAt is null or a.authorizationCodeExpiresAt < :cutoff)" +
+            " and (a.accessTokenExpiresAt is null or a.accessTokenExpiresAt < :cutoff)" +
+            " and (a.refreshTokenExpiresAt is null or a.refreshTokenExpiresAt < :cutoff)" +
+            " and (a.oidcIdTokenExpiresAt is null or a.oidcIdTokenExpiresAt < :cutoff)" +
+            " and (a.userCodeExpiresAt is null or a.userCodeExpiresAt < :cutoff)" +
+            " and (a.deviceCodeExpiresAt is null or a.deviceCodeExpiresAt < :cutoff)" +
+            " and (coalesce(a.authorizationCodeExpiresAt, a.accessTokenExpiresAt, a.refreshTokenExpiresAt," +
+            " a.oidcIdTokenExpiresAt, a.userCodeExpiresAt, a.deviceCodeExpiresAt) is not null" +
+            " or a.updatedAt < :abandonedBefore))";
+
+    @Query("select a.id from Authorization a where" + PURGEABLE +
+            " and a.id > :after order by a.id")
+    List<String> findPurgeableIds(@Param("cutoff") Instant cutoff,
+                                  @Param("abandonedBefore") Instant abandonedBefore,
+                                  @Param("after") String after,
+                                  Limit limit);
+
+    // Re-checks the condition so an authorization refreshed since it was selected is kept
+    @Modifying
+    @Query("delete from Authorization a where a.id in :ids and" + PURGEABLE)
+    int deletePurgeableByIdIn(@Param("ids") Collection<String> ids,
+                              @Param("cutoff") Instant cutoff,
+                              @Param("abandonedBefore") Instant abandonedBefore);
+}
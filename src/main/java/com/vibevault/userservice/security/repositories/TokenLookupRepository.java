@@ -0,0 +1,30 @@
+package com.vibevault.userservice.security.repositories;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import com.vibevault.userservice.security.models.Authorization;
+import com.vibevault.userservice.security.models.TokenLookup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TokenLookupRepository extends JpaRepository<TokenLookup, String> {
+    List<TokenLookup> findAllByAuthorizationId(String authorizationId);
+
+    @Query("select a from Authorization a join TokenLookup t on t.authorizationId = a.id where t.tokenHash = :tokenHash")
+    Optional<Authorization> findAuthorizationByTokenHash(@Param("tokenHash") String tokenHash);
+
+    @Modifying
+    @Query("delete from TokenLookup t where t.authorizationId = :authorizationId")
+    int deleteAllByAuthorizationId(@Param("authorizationId") String authorizationId);
+
+    @Modifying
+    @Query("delete from TokenLookup t where t.authorizationId in :authorizationIds" +
+            " and not exists (select 1 from Authorization a where a.id = t.authorizationId)")
+    int deleteOrphansByAuthorizationIdIn(@Param("authorizationIds") Collection<String> authorizationIds);
+}
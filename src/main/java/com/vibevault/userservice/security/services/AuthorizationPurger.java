@@ -0,0 +1,104 @@
+package com.vibevault.userservice.security.services;
+
+import com.vibevault.userservice.security.repositories.AuthorizationRepository;
+import com.vibevault.userservice.security.repositories.TokenLookupRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes OAuth2 authorizations once every code and token they hold has been expired for
+ * longer than the grace period; nothing else ever removes them, and the table is what
+ * every token request and introspection reads. Authorizations that hold no token yet
+ * (an authorization request waiting for consent) are deleted once they have not been
+ * saved for the consent timeout, since a user who never consented leaves them behind
+ * forever. Rows are deleted
+ * in id-ordered chunks, one transaction each, together with their token_lookup rows.
+ * Every step is idempotent, so instances running it at the same time are harmless.
+ */
+@Component
+@Slf4j
+public class AuthorizationPurger {
+    private static final String FIRST_ID = "";
+
+    private final AuthorizationRepository authorizationRepository;
+    private final TokenLookupRepository tokenLookupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final Duration grace;
+    private final Duration consentTimeout;
+    private final Counter purged;
+    // Refreshed after each run; counting the table on every scrape would cost more than the purge
+    private final AtomicLong live = new AtomicLong();
+
+    public AuthorizationPurger(AuthorizationRepository authorizationRepository,
+                               TokenLookupRepository tokenLookupRepository,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${auth.authorization.purge.enabled:true}") boolean enabled,
+                               @Value("${auth.authorization.purge.chunk-size:500}") int chunkSize,
+                               @Value("${auth.authorization.purge.grace:1h}") Duration grace,
+                               @Value("${auth.authorization.purge.consent-timeout:1h}") Duration consentTimeout) {
+        this.authorizationRepository = authorizationRepository;
+        this.tokenLookupRepository = tokenLookupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.grace = grace;
+        this.consentTimeout = consentTimeout;
+        this.purged = Counter.builder("auth.authorization.purged")
+                .description("Expired or abandoned OAuth2 authorizations deleted")
+                .register(meterRegistry);
+        Gauge.builder("auth.authorization.live", live, AtomicLong::get)
+                .description("OAuth2 authorizations in the table after the last purge")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.authorization.purge.interval:15m}",
+            initialDelayString = "${auth.authorization.purge.interval:15m}")
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+        Instant now = Instant.now();
+        Instant cutoff = now.minus(grace);
+        Instant abandonedBefore = now.minus(consentTimeout);
+        long total = 0;
+        String after = FIRST_ID;
+        while (true) {
+            List<String> ids = authorizationRepository.findPurgeableIds(cutoff, abandonedBefore, after, Limit.of(chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            Integer deleted = transactionTemplate.execute(status -> {
+                int count = authorizationRepository.deletePurgeableByIdIn(ids, cutoff, abandonedBefore);
+                tokenLookupRepository.deleteOrphansByAuthorizationIdIn(ids);
+                return count;
+            });
+            int count = deleted == null ? 0 : deleted;
+            purged.increment(count);
+            total += count;
+            if (ids.size() < chunkSize) {
+                break;
+            }
+            after = ids.getLast();
+        }
+        live.set(authorizationRepository.count());
+        if (total > 0) {
+            log.info("Purged {} expired or abandoned authorizations", total);
+        }
+    }
+}
@@ -1,13 +1,19 @@
 package com.vibevault.userservice.security.services;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
 
 import com.vibevault.userservice.security.jackson.CustomSecurityJacksonModule;
 import com.vibevault.userservice.security.models.Authorization;
+import com.vibevault.userservice.security.models.TokenLookup;
 import com.vibevault.userservice.security.repositories.AuthorizationRepository;
+import com.vibevault.userservice.security.repositories.TokenLookupRepository;
+import com.vibevault.userservice.services.utils.TokenDigest;
 import org.springframework.dao.DataRetrievalFailureException;
 import org.springframework.security.jackson.SecurityJacksonModules;
 import org.springframework.security.oauth2.core.AuthorizationGrantType;
@@ -27,6 +33,7 @@ import org.springframework.security.oauth2.server.authorization.client.Registere
 import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
 import org.springframework.security.oauth2.server.authorization.jackson.OAuth2AuthorizationServerJacksonModule;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 import tools.jackson.core.type.TypeReference;
@@ -36,13 +43,18 @@ import tools.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
 @Component
 public class JpaOAuth2AuthorizationService implements OAuth2AuthorizationService {
     private final AuthorizationRepository authorizationRepository;
+    private final TokenLookupRepository tokenLookupRepository;
     private final RegisteredClientRepository registeredClientRepository;
     private final JsonMapper jsonMapper;
 
-    public JpaOAuth2AuthorizationService(AuthorizationRepository authorizationRepository, RegisteredClientRepository registeredClientRepository) {
+    public JpaOAuth2AuthorizationService(AuthorizationRepository authorizationRepository,
+                                         TokenLookupRepository tokenLookupRepository,
+                                         RegisteredClientRepository registeredClientRepository) {
         Assert.notNull(authorizationRepository, "authorizationRepository cannot be null");
+        Assert.notNull(tokenLookupRepository, "tokenLookupRepository cannot be null");
         Assert.notNull(registeredClientRepository, "registeredClientRepository cannot be null");
         this.authorizationRepository = authorizationRepository;
+        this.tokenLookupRepository = tokenLookupRepository;
         this.registeredClientRepository = registeredClientRepository;
 
         ClassLoader classLoader = JpaOAuth2AuthorizationService.class.getClassLoader();
@@ -62,14 +74,19 @@ public class JpaOAuth2AuthorizationService implements OAuth2AuthorizationService
     }
 
     @Override
+    @Transactional
     public void save(OAuth2Authorization authorization) {
         Assert.notNull(authorization, "authorization cannot be null");
-        this.authorizationRepository.save(toEntity(authorization));
+        Authorization entity = toEntity(authorization);
+        this.authorizationRepository.save(entity);
+        syncTokenLookups(entity);
     }
 
     @Override
+    @Transactional
     public void remove(OAuth2Authorization authorization) {
         Assert.notNull(authorization, "authorization cannot be null");
+        this.tokenLookupRepository.deleteAllByAuthorizationId(authorization.getId());
         this.authorizationRepository.deleteById(authorization.getId());
     }
 
@@ -83,23 +100,25 @@ public class JpaOAuth2AuthorizationService implements OAuth2AuthorizationService
     public OAuth2Authorization findByToken(String token, OAuth2TokenType tokenType) {
         Assert.hasText(token, "token cannot be empty");
 
+        String tokenHash = TokenDigest.sha256Hex(token);
         Optional<Authorization> result;
         if (tokenType == null) {
-            result = this.authorizationRepository.findByStateOrAuthorizationCodeValueOrAccessTokenValueOrRefreshTokenValueOrOidcIdTokenValueOrUserCodeValueOrDeviceCodeValue(token);
+            // Introspection and revocation don't always send a type hint
+            result = this.tokenLookupRepository.findAuthorizationByTokenHash(tokenHash);
         } else if (OAuth2ParameterNames.STATE.equals(tokenType.getValue())) {
-            result = this.authorizationRepository.findByState(token);
+            result = this.authorizationRepository.findByStateHash(tokenHash);
         } else if (OAuth2ParameterNames.CODE.equals(tokenType.getValue())) {
-            result = this.authorizationRepository.findByAuthorizationCodeValue(token);
+            result = this.authorizationRepository.findByAuthorizationCodeHash(tokenHash);
         } else if (OAuth2ParameterNames.ACCESS_TOKEN.equals(tokenType.getValue())) {
-            result = this.authorizationRepository.findByAccessTokenValue(token);
+            result = this.authorizationRepository.findByAccessTokenHash(tokenHash);
         } else if (OAuth2ParameterNames.REFRESH_TOKEN.equals(tokenType.getValue())) {
-            result = this.authorizationRepository.findByRefreshTokenValue(token);
+            result = this.authorizationRepository.findByRefreshTokenHash(tokenHash);
         } else if (OidcParameterNames.ID_TOKEN.equals(tokenType.getValue())) {
-            result = this.authorizationRepository.findByOidcIdTokenValue(token);
+            result = this.authorizationRepository.findByOidcIdTokenHash(tokenHash);
         } else if (OAuth2ParameterNames.USER_CODE.equals(tokenType.getValue())) {
-            result = this.authorizationRepository.findByUserCodeValue(token);
+            result = this.authorizationRepository.findByUserCodeHash(tokenHash);
         } else if (OAuth2ParameterNames.DEVICE_CODE.equals(tokenType.getValue())) {
-            result = this.authorizationRepository.findByDeviceCodeValue(token);
+            result = this.authorizationRepository.findByDeviceCodeHash(tokenHash);
         } else {
             result = Optional.empty();
         }
@@ -107,6 +126,42 @@ public class JpaOAuth2AuthorizationService implements OAuth2AuthorizationService
         return result.map(this::toObject).orElse(null);
     }
 
+    /**
+     * Brings token_lookup in line with the digests on the entity: rows for tokens the
+     * authorization no longer holds are deleted and rows for new tokens inserted, so a
+     * refresh touches only the tokens it rotated.
+     */
+    private void syncTokenLookups(Authorization entity) {
+        Map<String, String> wanted = new HashMap<>();
+        putDigest(wanted, entity.getStateHash(), OAuth2ParameterNames.STATE);
+        putDigest(wanted, entity.getAuthorizationCodeHash(), OAuth2ParameterNames.CODE);
+        putDigest(wanted, entity.getAccessTokenHash(), OAuth2ParameterNames.ACCESS_TOKEN);
+        putDigest(wanted, entity.getRefreshTokenHash(), OAuth2ParameterNames.REFRESH_TOKEN);
+        putDigest(wanted, entity.getOidcIdTokenHash(), OidcParameterNames.ID_TOKEN);
+        putDigest(wanted, entity.getUserCodeHash(), OAuth2ParameterNames.USER_CODE);
+        putDigest(wanted, entity.getDeviceCodeHash(), OAuth2ParameterNames.DEVICE_CODE);
+
+        List<TokenLookup> stale = new ArrayList<>();
+        for (TokenLookup existing : this.tokenLookupRepository.findAllByAuthorizationId(entity.getId())) {
+            String tokenType = wanted.remove(existing.getTokenHash());
+            if (tokenType == null) {
+                stale.add(existing);
+            } else {
+                existing.setTokenType(tokenType);
+            }
+        }
+        this.tokenLookupRepository.deleteAll(stale);
+        List<TokenLookup> added = new ArrayList<>(wanted.size());
+        wanted.forEach((tokenHash, tokenType) -> added.add(new TokenLookup(tokenHash, entity.getId(), tokenType)));
+        this.tokenLookupRepository.saveAll(added);
+    }
+
+    private static void putDigest(Map<String, String> digests, String tokenHash, String tokenType) {
+        if (tokenHash != null) {
+            digests.put(tokenHash, tokenType);
+        }
+    }
+
     private OAuth2Authorization toObject(Authorization entity) {
         RegisteredClient registeredClient = this.registeredClientRepository.findById(entity.getRegisteredClientId());
         if (registeredClient == null) {
@@ -187,6 +242,8 @@ public class JpaOAuth2AuthorizationService implements OAuth2AuthorizationService
         entity.setAuthorizedScopes(StringUtils.collectionToDelimitedString(authorization.getAuthorizedScopes(), ","));
         entity.setAttributes(writeMap(authorization.getAttributes()));
         entity.setState(authorization.getAttribute(OAuth2ParameterNames.STATE));
+        entity.setStateHash(digest(entity.getState()));
+        entity.setUpdatedAt(Instant.now());
 
         OAuth2Authorization.Token<OAuth2AuthorizationCode> authorizationCode =
                 authorization.getToken(OAuth2AuthorizationCode.class);
@@ -197,6 +254,7 @@ public class JpaOAuth2AuthorizationService implements OAuth2AuthorizationService
                 entity::setAuthorizationCodeExpiresAt,
                 entity::setAuthorizationCodeMetadata
         );
+        entity.setAuthorizationCodeHash(digest(entity.getAuthorizationCodeValue()));
 
         OAuth2Authorization.Token<OAuth2AccessToken> accessToken =
                 authorization.getToken(OAuth2AccessToken.class);
@@ -207,6 +265,7 @@ public class JpaOAuth2AuthorizationService implements OAuth2AuthorizationService
                 entity::setAccessTokenExpiresAt,
                 entity::setAccessTokenMetadata
         );
+        entity.setAccessTokenHash(digest(entity.getAccessTokenValue()));
         if (accessToken != null && accessToken.getToken().getScopes() != null) {
             entity.setAccessTokenScopes(StringUtils.collectionToDelimitedString(accessToken.getToken().getScopes(), ","));
         }
@@ -220,6 +279,7 @@ public class JpaOAuth2AuthorizationService implements OAuth2AuthorizationService
                 entity::setRefreshTokenExpiresAt,
                 entity::setRefreshTokenMetadata
         );
+        entity.setRefreshTokenHash(digest(entity.getRefreshTokenValue()));
 
         OAuth2Authorization.Token<OidcIdToken> oidcIdToken =
                 authorization.getToken(OidcIdToken.class);
@@ -230,6 +290,7 @@ public class JpaOAuth2AuthorizationService implements OAuth2AuthorizationService
                 entity::setOidcIdTokenExpiresAt,
                 entity::setOidcIdTokenMetadata
         );
+        entity.setOidcIdTokenHash(digest(entity.getOidcIdTokenValue()));
         if (oidcIdToken != null) {
             entity.setOidcIdTokenClaims(writeMap(oidcIdToken.getClaims()));
         }
@@ -243,6 +304,7 @@ public class JpaOAuth2AuthorizationService implements OAuth2AuthorizationService
                 entity::setUserCodeExpiresAt,
                 entity::setUserCodeMetadata
         );
+        entity.setUserCodeHash(digest(entity.getUserCodeValue()));
 
         OAuth2Authorization.Token<OAuth2DeviceCode> deviceCode =
                 authorization.getToken(OAuth2DeviceCode.class);
@@ -253,6 +315,7 @@ public class JpaOAuth2AuthorizationService implements OAuth2AuthorizationService
                 entity::setDeviceCodeExpiresAt,
                 entity::setDeviceCodeMetadata
         );
+        entity.setDeviceCodeHash(digest(entity.getDeviceCodeValue()));
 
         return entity;
     }
@@ -272,6 +335,10 @@ public class JpaOAuth2AuthorizationService implements OAuth2AuthorizationService
         }
     }
 
+    private static String digest(String tokenValue) {
+        return tokenValue == null ? null : TokenDigest.sha256Hex(tokenValue);
+    }
+
     private Map<String, Object> parseMap(String data) {
         try {
             return this.jsonMapper.readValue(data, new TypeReference<Map<String, Object>>() {
@@ -1,6 +1,7 @@
 package com.vibevault.userservice.security.services;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -8,6 +9,11 @@ import java.util.Set;
 import com.vibevault.userservice.security.jackson.CustomSecurityJacksonModule;
 import com.vibevault.userservice.security.models.Client;
 import com.vibevault.userservice.security.repositories.ClientRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.jackson.SecurityJacksonModules;
 import org.springframework.security.oauth2.core.AuthorizationGrantType;
 import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
@@ -23,14 +29,30 @@ import tools.jackson.core.type.TypeReference;
 import tools.jackson.databind.json.JsonMapper;
 import tools.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
 
+/**
+ * Registered clients are few and RegisteredClient is immutable, so every client is kept
+ * fully built in memory, keyed by id and by clientId. The cache is loaded at startup and
+ * reloaded every refresh-interval; saves through this instance replace the entry at once,
+ * clients saved by other instances are read through on a miss or picked up by the next
+ * reload. Unknown ids are not cached and still go to the database.
+ * <p>
+ * Until that reload, other instances keep the old client: a secret rotated or a client
+ * revoked elsewhere still authenticates there for up to refresh-interval. Keep the
+ * interval as short as that window has to be.
+ */
 @Component
 public class JpaRegisteredClientRepository implements RegisteredClientRepository {
     private final ClientRepository clientRepository;
     private final JsonMapper jsonMapper;
+    // Replaced wholesale on every change so readers never lock
+    private volatile ClientSnapshot clients = ClientSnapshot.EMPTY;
 
-    public JpaRegisteredClientRepository(ClientRepository clientRepository) {
+    public JpaRegisteredClientRepository(ClientRepository clientRepository, MeterRegistry meterRegistry) {
         Assert.notNull(clientRepository, "clientRepository cannot be null");
         this.clientRepository = clientRepository;
+        Gauge.builder("auth.client.cache.size", this, repository -> repository.clients.byId().size())
+                .description("Registered clients held in memory")
+                .register(meterRegistry);
 
         ClassLoader classLoader = JpaRegisteredClientRepository.class.getClassLoader();
         // Configure validator to allow all application and Spring Security types
@@ -51,19 +73,60 @@ public class JpaRegisteredClientRepository implements RegisteredClientRepository
     @Override
     public void save(RegisteredClient registeredClient) {
         Assert.notNull(registeredClient, "registeredClient cannot be null");
-        this.clientRepository.save(toEntity(registeredClient));
+        Client entity = toEntity(registeredClient);
+        this.clientRepository.save(entity);
+        // Cache what a read would return, e.g. with clientIdIssuedAt defaulted
+        cache(toObject(entity));
     }
 
     @Override
     public RegisteredClient findById(String id) {
         Assert.hasText(id, "id cannot be empty");
-        return this.clientRepository.findById(id).map(this::toObject).orElse(null);
+        RegisteredClient cached = this.clients.byId().get(id);
+        if (cached != null) {
+            return cached;
+        }
+        return this.clientRepository.findById(id).map(this::toObject).map(this::cache).orElse(null);
     }
 
     @Override
     public RegisteredClient findByClientId(String clientId) {
         Assert.hasText(clientId, "clientId cannot be empty");
-        return this.clientRepository.findByClientId(clientId).map(this::toObject).orElse(null);
+        RegisteredClient cached = this.clients.byClientId().get(clientId);
+        if (cached != null) {
+            return cached;
+        }
+        return this.clientRepository.findByClientId(clientId).map(this::toObject).map(this::cache).orElse(null);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${auth.client.cache.refresh-interval:5m}",
+            initialDelayString = "${auth.client.cache.refresh-interval:5m}")
+    public synchronized void reload() {
+        Map<String, RegisteredClient> byId = new HashMap<>();
+        Map<String, RegisteredClient> byClientId = new HashMap<>();
+        for (Client client : this.clientRepository.findAll()) {
+            RegisteredClient registeredClient = toObject(client);
+            byId.put(registeredClient.getId(), registeredClient);
+            byClientId.put(registeredClient.getClientId(), registeredClient);
+        }
+        this.clients = new ClientSnapshot(Map.copyOf(byId), Map.copyOf(byClientId));
+    }
+
+    private synchronized RegisteredClient cache(RegisteredClient registeredClient) {
+        Map<String, RegisteredClient> byId = new HashMap<>(this.clients.byId());
+        Map<String, RegisteredClient> byClientId = new HashMap<>(this.clients.byClientId());
+        RegisteredClient previous = byId.put(registeredClient.getId(), registeredClient);
+        if (previous != null) {
+            byClientId.remove(previous.getClientId());
+        }
+        byClientId.put(registeredClient.getClientId(), registeredClient);
+        this.clients = new ClientSnapshot(Map.copyOf(byId), Map.copyOf(byClientId));
+        return registeredClient;
+    }
+
+    private record ClientSnapshot(Map<String, RegisteredClient> byId, Map<String, RegisteredClient> byClientId) {
+        static final ClientSnapshot EMPTY = new ClientSnapshot(Map.of(), Map.of());
     }
 
     private RegisteredClient toObject(Client client) {
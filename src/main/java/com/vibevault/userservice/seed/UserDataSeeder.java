@@ -6,7 +6,7 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Profile;
 import org.springframework.core.annotation.Order;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
 import java.nio.ByteBuffer;
@@ -22,12 +22,12 @@ import java.util.*;
 public class UserDataSeeder implements CommandLineRunner {
 
     private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
 
     private static final int TARGET_USERS = 10_000;
     private static final int BATCH_SIZE = 1_000;
 
     private static final String SEED_PASSWORD = "Seed@1234";
-    private static final int BCRYPT_STRENGTH = 14;
 
     // Role distribution
     private static final int ADMIN_COUNT = 10;
@@ -94,10 +94,10 @@ public class UserDataSeeder implements CommandLineRunner {
 
         long start = System.currentTimeMillis();
 
-        // Pre-compute BCrypt hash once (expensive at strength 14)
-        log.info("Computing BCrypt hash (strength {})...", BCRYPT_STRENGTH);
-        String hashedPassword = new BCryptPasswordEncoder(BCRYPT_STRENGTH).encode(SEED_PASSWORD);
-        log.info("BCrypt hash computed.");
+        // Pre-compute the hash once, with the same encoder and cost logins use
+        log.info("Computing password hash...");
+        String hashedPassword = passwordEncoder.encode(SEED_PASSWORD);
+        log.info("Password hash computed.");
 
         Map<String, byte[]> roleIds = ensureRoles();
         seedUsers(hashedPassword);
@@ -11,5 +11,6 @@ public interface AuthService {
     public LoginResponseDto login(String email, String password)throws InvalidCredentialsException;
     public UserRole signup(String email, String password, String name, String phone, String role)throws EmptyEmailException, EmptyPasswordException, EmptyPhoneException, EmailAlreadyExistsException, PhoneAlreadyExistsException, UserNotFoundException, EmptyRoleException;
     public List<UserRole> validateToken(String token)throws InvalidTokenException, TokenExpiredException, UserNotFoundException;
+    public List<TokenValidationResult> validateTokens(List<String> tokens)throws BatchTooLargeException;
     public void logout(String email,String token)throws TokenExpiredException,UserNotFoundException,InvalidTokenException, InvalidCredentialsException;
 }
@@ -4,13 +4,29 @@ import com.vibevault.userservice.dtos.auth.LoginResponseDto;
 import com.vibevault.userservice.exceptions.auth.*;
 import com.vibevault.userservice.models.*;
 import com.vibevault.userservice.repositories.*;
+import com.vibevault.userservice.repositories.projections.SessionValidationView;
+import com.vibevault.userservice.repositories.projections.SigningSecret;
+import com.vibevault.userservice.repositories.projections.UserIdentity;
+import com.vibevault.userservice.services.cache.RejectedTokenCache;
+import com.vibevault.userservice.services.cache.RevocationList;
+import com.vibevault.userservice.services.cache.RoleCache;
+import com.vibevault.userservice.services.cache.UserSigningKeyCache;
+import com.vibevault.userservice.services.cache.ValidatedTokenCache;
 import com.vibevault.userservice.services.utils.ClientInfo;
+import com.vibevault.userservice.services.utils.JwtHeaders;
+import com.vibevault.userservice.services.utils.SingleFlight;
+import com.vibevault.userservice.services.utils.TokenDigest;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
 
 import io.jsonwebtoken.security.MacAlgorithm;
 import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,35 +36,76 @@ import java.time.Duration;
 import java.time.Instant;
 
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @NoArgsConstructor
+@Slf4j
 public class AuthServiceImpl implements AuthService {
+    private static final String EMAIL_CONSTRAINT = "uc_users_email";
+    private static final String PHONE_NUMBER_CONSTRAINT = "uc_users_phone_number";
     private SessionRepository sessionRepository;
     private UserRepository userRepository;
     private PasswordEncoder passwordEncoder;
     private JWTRepository jwtRepository;
     private  KeyLocatorImpl keyLocator;
-    private RoleRepository roleRepository;
+    private RoleCache roleCache;
     private UserRoleRepository userRoleRepository;
+    private ValidatedTokenCache validatedTokenCache;
+    private RejectedTokenCache rejectedTokenCache;
+    private RevocationList revocationList;
+    private LoginRateLimiter loginRateLimiter;
+    private UserSigningKeyCache userSigningKeyCache;
+    private SigningKeyring signingKeyring;
+    private SessionWriteBehind sessionWriteBehind;
+    private ValidationMode validationMode;
+    private int maxBatchSize;
+    // Concurrent validations of the same token share one pipeline run
+    private SingleFlight<String, List<UserRole>> inFlightValidations = new SingleFlight<>();
+    // Immutable and thread-safe once built, so one instance serves every request thread
+    private JwtParser jwtParser;
     @Autowired
     public AuthServiceImpl(UserRepository userRepository,
                            PasswordEncoder passwordEncoder,
                            SessionRepository sessionRepository,
                            JWTRepository jwtRepository,
                            KeyLocatorImpl keyLocator,
-                           RoleRepository roleRepository,
-                           UserRoleRepository userRoleRepository) {
+                           RoleCache roleCache,
+                           UserRoleRepository userRoleRepository,
+                           ValidatedTokenCache validatedTokenCache,
+                           RejectedTokenCache rejectedTokenCache,
+                           RevocationList revocationList,
+                           LoginRateLimiter loginRateLimiter,
+                           UserSigningKeyCache userSigningKeyCache,
+                           SigningKeyring signingKeyring,
+                           SessionWriteBehind sessionWriteBehind,
+                           @Value("${auth.validation.mode:STATEFUL}") ValidationMode validationMode,
+                           @Value("${auth.validation.batch.max-tokens:100}") int maxBatchSize) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.sessionRepository = sessionRepository;
         this.jwtRepository = jwtRepository;
         this.keyLocator = keyLocator;
-        this.roleRepository = roleRepository;
+        this.roleCache = roleCache;
         this.userRoleRepository = userRoleRepository;
+        this.validatedTokenCache = validatedTokenCache;
+        this.rejectedTokenCache = rejectedTokenCache;
+        this.revocationList = revocationList;
+        this.loginRateLimiter = loginRateLimiter;
+        this.userSigningKeyCache = userSigningKeyCache;
+        this.signingKeyring = signingKeyring;
+        this.sessionWriteBehind = sessionWriteBehind;
+        this.validationMode = validationMode;
+        this.maxBatchSize = maxBatchSize;
+        this.jwtParser = Jwts.parser()
+                .keyLocator(keyLocator)
+                .build();
     }
     @Override
     public LoginResponseDto login(String email, String password)throws InvalidCredentialsException {
+        // Throttle before the user lookup and the password hash, which is what attackers burn
+        loginRateLimiter.check(email, ClientInfo.getClientIpAddress());
         Optional<User> optionalUser = userRepository.findUserByEmail(email);
         if(optionalUser.isEmpty()){
             throw new InvalidCredentialsException("Invalid credentials");
@@ -57,6 +114,7 @@ public class AuthServiceImpl implements AuthService {
         if(!passwordEncoder.matches(password, user.getPassword())){
             throw new InvalidCredentialsException("Invalid credentials");
         }
+        upgradePasswordHash(user, password);
 
         Optional<List<UserRole>> optionalUserRoleList = userRoleRepository.findUserRoleByUser_Id(user.getId());
         if(optionalUserRoleList.isEmpty()) {
@@ -71,6 +129,29 @@ public class AuthServiceImpl implements AuthService {
         return loginResponseDto;
     }
 
+    /**
+     * Re-hashes the password with the current algorithm and parameters when the stored
+     * hash is older, while the raw password is at hand. Failing to upgrade never fails
+     * the login; it is retried on the next one.
+     */
+    private void upgradePasswordHash(User user, String password) {
+        String oldHash = user.getPassword();
+        if (!passwordEncoder.upgradeEncoding(oldHash)) {
+            return;
+        }
+        try {
+            String newHash = passwordEncoder.encode(password);
+            // Zero rows means a concurrent login already upgraded it
+            if (userRepository.updatePasswordHash(user.getId(), oldHash, newHash) > 0) {
+                user.setPassword(newHash);
+            }
+        } catch (PasswordHashingUnavailableException e) {
+            // Keep the old hash; it still matches
+        } catch (DataAccessException e) {
+            log.warn("Could not upgrade the password hash of user {}", user.getId(), e);
+        }
+    }
+
     private Session createSession(List<UserRole> userRoleList) {
         if (userRoleList == null || userRoleList.isEmpty()) {
             throw new UserNotFoundException("User role list is empty or null");
@@ -98,6 +179,7 @@ public class AuthServiceImpl implements AuthService {
 
         String jws = getJWT(userRoleList);
         session.setToken(jws);
+        session.setTokenHash(TokenDigest.sha256Hex(jws));
         session.setDeleted(false);
 
         // Set the session expiration time to 1 day from now
@@ -110,7 +192,7 @@ public class AuthServiceImpl implements AuthService {
         session.setCreatedBy(user.getId());
         session.setLastModifiedBy(user.getId());
 
-        return sessionRepository.save(session);
+        return sessionWriteBehind.persist(session, userRoleList);
     }
 
     String getJWT(List<UserRole> userRoleList) {
@@ -124,8 +206,47 @@ public class AuthServiceImpl implements AuthService {
         }
 
         MacAlgorithm alg = Jwts.SIG.HS512;
+        String kid;
+        SecretKey key;
+        if (signingKeyring.isSigning()) {
+            SigningKeyring.SigningKey current = signingKeyring.current();
+            kid = current.kid();
+            key = current.key();
+        } else {
+            // The jwt table is only read when this user's cached key is missing or due for rotation
+            UserSigningKeyCache.ActiveKey activeKey = userSigningKeyCache.get(user.getId())
+                    .orElseGet(() -> loadOrCreateSigningKey(user, alg));
+            kid = activeKey.kid().toString();
+            key = activeKey.key();
+        }
+
+        String jws = Jwts.builder()
+                        .header().keyId(kid)
+                        .and()
+                        .issuer(Consts.JWT_ISSUER)
+                        .issuedAt(new Date())
+                        .expiration(new Date(System.currentTimeMillis() + Consts.JWT_EXPIRATION_TIME))
+                        .subject(user.getId().toString())
+                        .claim("email", user.getEmail())
+                        .claim("given_name", user.getFirstName())
+                        .claim("family_name", user.getLastName())
+                        .claim("phone_number", user.getPhoneNumber())
+                        .claim("roles", roles.stream()
+                                .map(Role::getName)
+                                .toList())
+                        .audience()
+                        .add(Consts.JWT_AUDIENCE)
+                        .and()
+                        .id(kid)
+                        .signWith(key,alg)
+                        .compact();
+        return jws;
+    }
+
+    private UserSigningKeyCache.ActiveKey loadOrCreateSigningKey(User user, MacAlgorithm alg) {
         SecretKey key=null;
-        String kid=null;
+        UUID kid=null;
+        Instant createdAt=null;
 
         Optional<JWT> optionalJWT = jwtRepository.findTopByUser_IdEqualsAndDeletedEquals(user.getId(),false);
 
@@ -139,7 +260,9 @@ public class AuthServiceImpl implements AuthService {
                 try {
                     byte[] decodedKey = Base64.getDecoder().decode(existingJwt.getSecret());
                     key = Keys.hmacShaKeyFor(decodedKey);
-                    kid = existingJwt.getId().toString();
+                    kid = existingJwt.getId();
+                    createdAt = keyCreationTime;
+                    keyLocator.register(kid, key);
                     createNewKey = false;
                 } catch (IllegalArgumentException e) {
                     System.err.println("Error decoding existing key, creating a new one: " + e.getMessage());
@@ -153,6 +276,7 @@ public class AuthServiceImpl implements AuthService {
             }
             if (!oldActiveJwts.isEmpty()) {
                 jwtRepository.saveAll(oldActiveJwts);
+                keyLocator.evict(oldActiveJwts.stream().map(JWT::getId).toList());
             }
 
             key = alg.key().build();
@@ -163,27 +287,14 @@ public class AuthServiceImpl implements AuthService {
             jwtRecord.setDeleted(false);
 
             JWT savedJwt = jwtRepository.save(jwtRecord);
-            kid = savedJwt.getId().toString();
+            kid = savedJwt.getId();
+            createdAt = savedJwt.getCreatedAt() != null ? savedJwt.getCreatedAt().toInstant() : jwtRecord.getCreatedAt().toInstant();
+            keyLocator.register(savedJwt.getId(), key);
         }
 
-        String jws = Jwts.builder()
-                        .header().keyId(kid)
-                        .and()
-                        .issuer(Consts.JWT_ISSUER)
-                        .issuedAt(new Date())
-                        .expiration(new Date(System.currentTimeMillis() + Consts.JWT_EXPIRATION_TIME))
-                        .subject(user.getId().toString())
-                        .claim("email", user.getEmail())
-                        .claim("roles", roles.stream()
-                                .map(Role::getName)
-                                .toList())
-                        .audience()
-                        .add(Consts.JWT_AUDIENCE)
-                        .and()
-                        .id(kid)
-                        .signWith(key,alg)
-                        .compact();
-        return jws;
+        UserSigningKeyCache.ActiveKey activeKey = new UserSigningKeyCache.ActiveKey(kid, key, createdAt);
+        userSigningKeyCache.put(user.getId(), activeKey);
+        return activeKey;
     }
 
     @Override
@@ -198,14 +309,21 @@ public class AuthServiceImpl implements AuthService {
         if (phone == null || phone.isEmpty()) {
             throw new EmptyPhoneException("Phone number cannot be empty");
         }
-        Optional<User> existingUser = userRepository.findUserByEmail(email);
-        if(existingUser.isPresent()) {
+        if(role == null || role.isEmpty()) {
+            throw new EmptyRoleException("Role cannot be empty");
+        }
+        // One probe covers both uniqueness checks; the unique constraints catch signups
+        // that race past it
+        List<UserIdentity> existing = userRepository.findIdentitiesByEmailOrPhoneNumber(email, phone);
+        if (existing.stream().anyMatch(identity -> email.equalsIgnoreCase(identity.email()))) {
             throw new EmailAlreadyExistsException("Email already exists");
         }
-        Optional<User> existingPhone = userRepository.findUserByPhoneNumber(phone);
-        if(existingPhone.isPresent()){
+        if (!existing.isEmpty()) {
             throw new PhoneAlreadyExistsException("Phone number already exists");
         }
+        Role userRole = roleCache.findByName(role)
+                .orElseThrow(() -> new RoleNotFoundException("Role not found: " + role));
+
         User user = new User();
         user.setEmail(email);
         user.setPassword(passwordEncoder.encode(password));
@@ -219,27 +337,210 @@ public class AuthServiceImpl implements AuthService {
         }
         user.setPhoneNumber(phone);
 
+        // createdBy/lastModifiedBy are filled in on persist (see User#auditSelfRegistration)
         User savedUser = userRepository.save(user);
-        if(role == null || role.isEmpty()) {
-            throw new EmptyRoleException("Role cannot be empty");
-        }
-        Optional<Role> optionalRole = roleRepository.findByName(role);
-        if(optionalRole.isEmpty()){
-            throw new RoleNotFoundException("Role not found: " + role);
-        }
-        Role userRole = optionalRole.get();
         UserRole userRoleEntity = new UserRole();
-        userRoleEntity.setUser(updateUserAuditorFields(savedUser.getId()));
+        userRoleEntity.setUser(savedUser);
         userRoleEntity.setRole(userRole);
         UserRole savedUserRole = userRoleRepository.save(userRoleEntity);
-        // Then manually update the audit fields with the new ID
+        try {
+            // Both inserts go out together here rather than at commit, so a duplicate
+            // surfaces as the matching signup error
+            userRoleRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            String constraint = violatedConstraint(e);
+            if (constraint.startsWith(PHONE_NUMBER_CONSTRAINT)) {
+                throw new PhoneAlreadyExistsException("Phone number already exists");
+            }
+            if (constraint.startsWith(EMAIL_CONSTRAINT)) {
+                throw new EmailAlreadyExistsException("Email already exists");
+            }
+            throw e;
+        }
         return savedUserRole;
     }
+
+    // MySQL reports the constraint as "users.uc_users_email", H2 as "PUBLIC.UC_USERS_EMAIL_INDEX_x"
+    private static String violatedConstraint(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                String name = violation.getConstraintName().toLowerCase(Locale.ROOT);
+                return name.substring(name.lastIndexOf('.') + 1);
+            }
+        }
+        return "";
+    }
 @Override
 public List<UserRole> validateToken(String token)
         throws InvalidTokenException, TokenExpiredException, UserNotFoundException {
 
-    Session session   = loadActiveSession(token);
+    String tokenHash = TokenDigest.sha256Hex(token);
+    Optional<RuntimeException> rejection = rejectedTokenCache.get(tokenHash);
+    if (rejection.isPresent()) {
+        throw rejection.get();
+    }
+    return inFlightValidations.execute(tokenHash, () -> {
+        try {
+            return validate(token, tokenHash);
+        } catch (RuntimeException e) {
+            rejectedTokenCache.put(tokenHash, e);
+            throw e;
+        }
+    });
+}
+
+private List<UserRole> validate(String token, String tokenHash)
+        throws InvalidTokenException, TokenExpiredException, UserNotFoundException {
+    if (validationMode == ValidationMode.STATELESS) {
+        // A filter hit may be a false positive, so it falls through to the session check
+        // below rather than failing outright; the cache is skipped for possibly revoked tokens
+        if (!revocationList.mightBeRevoked(tokenHash)) {
+            Optional<List<UserRole>> fromClaims = verifyStateless(token);
+            if (fromClaims.isPresent()) {
+                return fromClaims.get();
+            }
+        }
+    } else {
+        Optional<List<UserRole>> cachedUserRoles = validatedTokenCache.get(tokenHash);
+        if (cachedUserRoles.isPresent()) {
+            return cachedUserRoles.get();
+        }
+    }
+
+    // One round trip fetches the session, its user, the user's current roles and the
+    // signing secret for the (not yet verified) kid in the token header. Sessions from
+    // recent logins that are still queued for writing are served from memory.
+    Optional<UUID> kid = JwtHeaders.keyId(token);
+    SessionValidationView view = sessionWriteBehind.pending(tokenHash)
+            .orElseGet(() -> loadActiveSession(tokenHash, kid));
+    return verifySession(token, tokenHash, kid, view);
+}
+
+@Override
+public List<TokenValidationResult> validateTokens(List<String> tokens) throws BatchTooLargeException {
+    if (tokens == null || tokens.isEmpty()) {
+        return List.of();
+    }
+    if (tokens.size() > maxBatchSize) {
+        throw new BatchTooLargeException("At most " + maxBatchSize + " tokens can be validated per request");
+    }
+
+    // Cache hits and blank tokens are resolved up front; the rest are looked up together
+    Map<String, TokenValidationResult> resultsByHash = new HashMap<>();
+    Map<String, String> pending = new LinkedHashMap<>();
+    for (String token : tokens) {
+        if (token == null || token.isBlank()) {
+            continue;
+        }
+        String tokenHash = TokenDigest.sha256Hex(token);
+        if (resultsByHash.containsKey(tokenHash)) {
+            continue;
+        }
+        Optional<RuntimeException> rejection = rejectedTokenCache.get(tokenHash);
+        if (rejection.isPresent()) {
+            resultsByHash.put(tokenHash, TokenValidationResult.invalid(rejection.get()));
+            continue;
+        }
+        if (validationMode == ValidationMode.STATELESS && !revocationList.mightBeRevoked(tokenHash)) {
+            try {
+                Optional<List<UserRole>> fromClaims = verifyStateless(token);
+                if (fromClaims.isPresent()) {
+                    resultsByHash.put(tokenHash, TokenValidationResult.valid(fromClaims.get()));
+                    continue;
+                }
+            } catch (RuntimeException e) {
+                rejectedTokenCache.put(tokenHash, e);
+                resultsByHash.put(tokenHash, TokenValidationResult.invalid(e));
+                continue;
+            }
+        }
+        Optional<List<UserRole>> cachedUserRoles = validationMode == ValidationMode.STATELESS
+                ? Optional.empty()
+                : validatedTokenCache.get(tokenHash);
+        if (cachedUserRoles.isPresent()) {
+            resultsByHash.put(tokenHash, TokenValidationResult.valid(cachedUserRoles.get()));
+        } else {
+            pending.putIfAbsent(tokenHash, token);
+        }
+    }
+
+    if (!pending.isEmpty()) {
+        // Sessions still queued for writing are served from memory
+        Map<String, SessionValidationView> unwritten = new HashMap<>();
+        for (String tokenHash : pending.keySet()) {
+            sessionWriteBehind.pending(tokenHash).ifPresent(view -> unwritten.put(tokenHash, view));
+        }
+        Set<String> stored = new HashSet<>(pending.keySet());
+        stored.removeAll(unwritten.keySet());
+
+        // One IN query each for the sessions, the owners' roles and the signing secrets
+        Map<String, Session> sessions = stored.isEmpty()
+                ? Map.of()
+                : sessionRepository.findAllForValidation(stored, SessionStatus.ACTIVE).stream()
+                        .collect(Collectors.toMap(Session::getTokenHash, Function.identity(), (a, b) -> a));
+
+        Set<UUID> userIds = sessions.values().stream()
+                .map(Session::getUser)
+                .filter(Objects::nonNull)
+                .map(User::getId)
+                .collect(Collectors.toSet());
+        Map<UUID, List<UserRole>> userRoles = userIds.isEmpty()
+                ? Map.of()
+                : userRoleRepository.findAllWithRoleByUserIds(userIds).stream()
+                        .collect(Collectors.groupingBy(ur -> ur.getUser().getId()));
+
+        Map<String, Optional<UUID>> kids = new HashMap<>();
+        for (String tokenHash : sessions.keySet()) {
+            kids.put(tokenHash, JwtHeaders.keyId(pending.get(tokenHash)));
+        }
+        Set<UUID> kidSet = kids.values().stream()
+                .flatMap(Optional::stream)
+                .collect(Collectors.toSet());
+        Map<UUID, String> secrets = kidSet.isEmpty()
+                ? Map.of()
+                : jwtRepository.findSecretsByIdIn(kidSet).stream()
+                        .collect(Collectors.toMap(SigningSecret::id, SigningSecret::secret));
+
+        for (Map.Entry<String, String> entry : pending.entrySet()) {
+            String tokenHash = entry.getKey();
+            try {
+                Optional<UUID> kid = kids.computeIfAbsent(tokenHash, h -> JwtHeaders.keyId(entry.getValue()));
+                SessionValidationView view = unwritten.get(tokenHash);
+                if (view == null) {
+                    Session session = sessions.get(tokenHash);
+                    if (session == null) {
+                        throw new SessionNotFoundException("Invalid or expired session");
+                    }
+                    if (!isActive(session)) {
+                        throw new InvalidTokenException("Invalid or expired session");
+                    }
+                    view = new SessionValidationView(session,
+                            userRoles.getOrDefault(session.getUser().getId(), List.of()),
+                            kid.map(secrets::get).orElse(null));
+                }
+                resultsByHash.put(tokenHash, TokenValidationResult.valid(verifySession(entry.getValue(), tokenHash, kid, view)));
+            } catch (RuntimeException e) {
+                rejectedTokenCache.put(tokenHash, e);
+                resultsByHash.put(tokenHash, TokenValidationResult.invalid(e));
+            }
+        }
+    }
+
+    List<TokenValidationResult> results = new ArrayList<>(tokens.size());
+    for (String token : tokens) {
+        if (token == null || token.isBlank()) {
+            results.add(TokenValidationResult.invalid(new InvalidTokenException("Token cannot be empty")));
+        } else {
+            results.add(resultsByHash.get(TokenDigest.sha256Hex(token)));
+        }
+    }
+    return results;
+}
+
+private List<UserRole> verifySession(String token, String tokenHash, Optional<UUID> kid, SessionValidationView view)
+        throws InvalidTokenException, TokenExpiredException, UserNotFoundException {
+    Session session   = view.session();
+    primeSigningKey(kid, view.signingSecret());
     Jws<Claims> jws   = parseAndVerifySignature(token);
     Claims   claims   = jws.getPayload();
     User      user    = session.getUser();
@@ -251,12 +552,11 @@ public List<UserRole> validateToken(String token)
     if (roles == null || roles.isEmpty() || roles.stream().anyMatch(Role::isDeleted) || roles.stream().anyMatch(role -> role.getId() == null)) {
         throw new RoleNotFoundException("Role not found");
     }
-    Optional<List<UserRole>> optionalUserRoleList = userRoleRepository.findUserRoleByUser_Id(user.getId());
-    if (optionalUserRoleList.isEmpty()) {
+    List<UserRole> userRoleList = view.userRoles();
+    if (userRoleList.isEmpty()) {
         throw new UserNotFoundException("User does not have a role assigned");
     }
-    List<UserRole> userRoleList = optionalUserRoleList.get();
-    if (!userRoleList.stream().anyMatch(ur -> ur.getRole().getName().equals(roles.getFirst().getName()))) {
+    if (!userRoleList.stream().anyMatch(ur -> ur.getRole() != null && ur.getRole().getName().equals(roles.getFirst().getName()))) {
         throw new InvalidTokenException("Token role does not match user role");
     }
     if (!session.getToken().equals(token)) {
@@ -268,24 +568,92 @@ public List<UserRole> validateToken(String token)
     verifyAudience(claims.getAudience());
     verifyIssuer(claims.getIssuer());
     verifySubject(claims.getSubject(),  user.getId().toString());
-    verifyJwtRecordExists(claims.getId());
+    verifyJwtRecordExists(claims.getId(), kid, view.signingSecret());
+    validatedTokenCache.put(tokenHash, userRoleList, claims.getExpiration(), session.getExpiredAt());
+    // A logout that ran while this validation held the still-active session has already
+    // evicted; it marks the digest revoked first, so the entry put above is taken back here.
+    // A false positive only costs this token its cache entry.
+    if (revocationList.mightBeRevoked(tokenHash)) {
+        validatedTokenCache.evict(tokenHash);
+    }
     return userRoleList;
 }
 
-    private Session loadActiveSession(String token) throws InvalidTokenException, TokenExpiredException {
-        return sessionRepository
-                .findSessionsByTokenEqualsAndStatusIs(token, SessionStatus.ACTIVE)
-                .filter(s -> !s.isDeleted())
-                .filter(s -> !s.getExpiredAt().before(new Date()))
-                .orElseThrow(() -> new InvalidTokenException("Invalid or expired session"));
+    /**
+     * Validates a token from its signature and claims alone. Returns empty for tokens
+     * issued before the profile claims were added, which still need their session.
+     */
+    private Optional<List<UserRole>> verifyStateless(String token)
+            throws InvalidTokenException, TokenExpiredException, UserNotFoundException {
+        Claims claims = parseAndVerifySignature(token).getPayload();
+        Date expiration = claims.getExpiration();
+        if (expiration == null || expiration.before(new Date())) {
+            throw new TokenExpiredException("Token expired");
+        }
+        verifyAudience(claims.getAudience());
+        verifyIssuer(claims.getIssuer());
+        UUID userId;
+        try {
+            userId = UUID.fromString(claims.getSubject());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new InvalidTokenException("Invalid subject");
+        }
+        if (!(claims.get("email") instanceof String email)) {
+            throw new InvalidTokenException("Invalid email");
+        }
+        if (!(claims.get("given_name") instanceof String firstName)) {
+            return Optional.empty();
+        }
+        if (!(claims.get("roles") instanceof List<?> roleNames) || roleNames.isEmpty()) {
+            throw new UserNotFoundException("User does not have a role assigned");
+        }
+
+        User user = new User();
+        user.setId(userId);
+        user.setEmail(email);
+        user.setFirstName(firstName);
+        user.setLastName(claims.get("family_name") instanceof String lastName ? lastName : "");
+        user.setPhoneNumber(claims.get("phone_number") instanceof String phone ? phone : null);
+        List<UserRole> userRoleList = new ArrayList<>(roleNames.size());
+        for (Object roleName : roleNames) {
+            Role role = new Role();
+            role.setName(String.valueOf(roleName));
+            UserRole userRole = new UserRole();
+            userRole.setUser(user);
+            userRole.setRole(role);
+            userRoleList.add(userRole);
+        }
+        return Optional.of(userRoleList);
+    }
+
+    private SessionValidationView loadActiveSession(String tokenHash, Optional<UUID> kid) throws InvalidTokenException, TokenExpiredException {
+        SessionValidationView view = SessionValidationView
+                .from(sessionRepository.findValidationRows(tokenHash, SessionStatus.ACTIVE, kid.orElse(null)))
+                .orElseThrow(() -> new SessionNotFoundException("Invalid or expired session"));
+        if (!isActive(view.session())) {
+            throw new InvalidTokenException("Invalid or expired session");
+        }
+        return view;
+    }
+
+    private boolean isActive(Session session) {
+        return !session.isDeleted() && !session.getExpiredAt().before(new Date());
+    }
+
+    private void primeSigningKey(Optional<UUID> kid, String signingSecret) throws InvalidTokenException {
+        if (kid.isEmpty() || signingSecret == null) {
+            return;
+        }
+        try {
+            keyLocator.prime(kid.get(), signingSecret);
+        } catch (JwtException e) {
+            throw new InvalidTokenException("Invalid token signature");
+        }
     }
 
     Jws<Claims> parseAndVerifySignature(String token) throws InvalidTokenException {
         try {
-            JwtParser parser = Jwts.parser()
-                    .keyLocator(keyLocator)
-                    .build();
-            return parser.parseSignedClaims(token);
+            return jwtParser.parseSignedClaims(token);
         } catch (JwtException e) {
             throw new InvalidTokenException("Invalid token signature");
         }
@@ -322,13 +690,21 @@ public List<UserRole> validateToken(String token)
         }
     }
 
-    private void verifyJwtRecordExists(String jti) throws InvalidTokenException {
+    private void verifyJwtRecordExists(String jti, Optional<UUID> kid, String signingSecret) throws InvalidTokenException {
+        // Keyring tokens have no jwt row; the locator already rejected unknown or retired keyring kids
+        if (SigningKeyring.isKeyringKid(jti)) {
+            return;
+        }
         UUID uuid;
         try {
             uuid=UUID.fromString(jti);
         } catch (IllegalArgumentException e) {
             throw new InvalidTokenException("Invalid jti");
         }
+        // The validation fetch already found the jwt row when the jti is the header kid
+        if (signingSecret != null && kid.isPresent() && kid.get().equals(uuid)) {
+            return;
+        }
         if (jwtRepository.findById(uuid).isEmpty()) {
             throw new InvalidTokenException("Unknown jti");
         }
@@ -336,7 +712,12 @@ public List<UserRole> validateToken(String token)
 
     @Override
     public void logout(String email,String token)throws TokenExpiredException,UserNotFoundException,InvalidTokenException, InvalidCredentialsException {
-        Optional<Session> optionalSession = sessionRepository.findSessionsByTokenEqualsAndStatusIs(token, SessionStatus.ACTIVE);
+        String tokenHash = TokenDigest.sha256Hex(token);
+        // The session row has to exist before it can be marked as logged out
+        if (!sessionWriteBehind.flushIfPending(tokenHash)) {
+            throw new SessionWritePendingException("Session is not written yet, retry the logout");
+        }
+        Optional<Session> optionalSession = sessionRepository.findSessionsByTokenHashEqualsAndStatusIs(tokenHash, SessionStatus.ACTIVE);
         if(optionalSession.isPresent()){
             Session session = optionalSession.get();
             if(session.getExpiredAt().before(new Date())){
@@ -363,25 +744,13 @@ public List<UserRole> validateToken(String token)
             session.setDeleted(true);
             session.setStatus(SessionStatus.LOGGED_OUT);
             sessionRepository.save(session);
+            // Revoke before evicting, so a validation that read the session before the save
+            // sees the revocation after its own cache put and drops the entry again
+            revocationList.add(tokenHash);
+            validatedTokenCache.evict(tokenHash);
         }
         else{
             throw new InvalidTokenException("Invalid token");
         }
     }
-
-    @Transactional
-    protected User updateUserAuditorFields(UUID userId)throws UserNotFoundException {
-        Optional<User> optionalUser=userRepository.findById(userId);
-        User user;
-        if(optionalUser.isPresent()){
-            user=optionalUser.get();
-            user.setCreatedBy(userId);
-            user.setLastModifiedBy(userId);
-            user= userRepository.save(user);
-        }
-        else{
-            throw new UserNotFoundException("User not found");
-        }
-        return user;
-    }
 }
@@ -3,6 +3,7 @@ package com.vibevault.userservice.services;
 import com.vibevault.userservice.exceptions.auth.SigningKeyNotFoundException;
 import com.vibevault.userservice.models.JWT;
 import com.vibevault.userservice.repositories.JWTRepository;
+import com.vibevault.userservice.services.cache.SigningKeyCache;
 import io.jsonwebtoken.*;
 import org.springframework.stereotype.Service;
 
@@ -10,6 +11,7 @@ import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 import java.security.Key;
 import java.util.Base64;
+import java.util.Collection;
 import java.util.UUID;
 
 import static com.vibevault.userservice.services.Consts.JWT_SECRET_ALGORITHM;
@@ -17,9 +19,13 @@ import static com.vibevault.userservice.services.Consts.JWT_SECRET_ALGORITHM;
 @Service
 public class KeyLocatorImpl extends LocatorAdapter<Key> {
     private JWTRepository jwtRepository;
+    private SigningKeyCache signingKeyCache;
+    private SigningKeyring signingKeyring;
 
-    public KeyLocatorImpl(JWTRepository jwtRepository) {
+    public KeyLocatorImpl(JWTRepository jwtRepository, SigningKeyCache signingKeyCache, SigningKeyring signingKeyring) {
         this.jwtRepository = jwtRepository;
+        this.signingKeyCache = signingKeyCache;
+        this.signingKeyring = signingKeyring;
     }
     @Override
     public SecretKey locate(ProtectedHeader header) { // a JwsHeader or JweHeader
@@ -28,6 +34,11 @@ public class KeyLocatorImpl extends LocatorAdapter<Key> {
         if (kid == null) {
             throw new JwtException("Missing 'kid' in header");
         }
+        // Keyring keys are derived in memory and never stored in the jwt table
+        if (SigningKeyring.isKeyringKid(kid)) {
+            return signingKeyring.verificationKey(kid)
+                    .orElseThrow(() -> new JwtException("Unknown or retired keyring kid: " + kid));
+        }
 
         UUID keyId;
         try {
@@ -35,21 +46,51 @@ public class KeyLocatorImpl extends LocatorAdapter<Key> {
         } catch (IllegalArgumentException e) {
             throw new MalformedJwtException("Invalid 'kid' format: " + kid, e);
         }
+        // 2. Serve from the key cache; only a miss goes to the jwt table
+        return signingKeyCache.get(keyId, this::loadKey);
+    }
+
+    /**
+     * Makes a freshly created signing key available to verification without a lookup.
+     */
+    public void register(UUID kid, SecretKey key) {
+        signingKeyCache.put(kid, key);
+    }
+
+    /**
+     * Caches the key for a secret that was already fetched alongside other data, so the
+     * verification that follows does not look the kid up again.
+     */
+    public void prime(UUID kid, String secret) {
+        signingKeyCache.get(kid, keyId -> toSecretKey(keyId, secret));
+    }
+
+    /**
+     * Drops retired signing keys from the cache; a later token carrying one of these
+     * kids goes back to the jwt table.
+     */
+    public void evict(Collection<UUID> kids) {
+        signingKeyCache.evictAll(kids);
+    }
+
+    private SecretKey loadKey(UUID keyId) {
         JWT jwtEntity = jwtRepository.findById(keyId)
-                .orElseThrow(() -> new SigningKeyNotFoundException("Signing key not found for kid: " + kid));
+                .orElseThrow(() -> new SigningKeyNotFoundException("Signing key not found for kid: " + keyId));
+        return toSecretKey(keyId, jwtEntity.getSecret());
+    }
 
+    private SecretKey toSecretKey(UUID keyId, String secret) {
         // 3. Decode the Base64‐encoded secret and build a SecretKeySpec
 
         byte[] secretBytes;
         try {
-            secretBytes = Base64.getDecoder().decode(jwtEntity.getSecret());
+            secretBytes = Base64.getDecoder().decode(secret);
         } catch (IllegalArgumentException e) {
             // Consider logging this event
-            throw new MalformedJwtException("Could not decode Base64 secret for kid: " + kid, e);
+            throw new MalformedJwtException("Could not decode Base64 secret for kid: " + keyId, e);
         }
 
         // Use the JCA algorithm name obtained via getJcaName()
         return new SecretKeySpec(secretBytes, JWT_SECRET_ALGORITHM);
-
     }
 }
@@ -0,0 +1,108 @@
+package com.vibevault.userservice.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vibevault.userservice.exceptions.auth.LoginRateLimitedException;
+import com.vibevault.userservice.services.utils.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-IP and per-account token buckets checked before a login touches the database or
+ * the password hash. Buckets live in size-bounded caches and are dropped after a full
+ * refill period without use; by then they would be full again, so dropping them loses
+ * nothing.
+ */
+@Component
+public class LoginRateLimiter {
+    private final boolean enabled;
+    private final long emailCapacity;
+    private final long emailRefillNanos;
+    private final long ipCapacity;
+    private final long ipRefillNanos;
+    private final Cache<String, TokenBucket> emailBuckets;
+    private final Cache<String, TokenBucket> ipBuckets;
+    private final LongSupplier clock;
+    private final Counter emailRejections;
+    private final Counter ipRejections;
+
+    @Autowired
+    public LoginRateLimiter(MeterRegistry meterRegistry,
+                            @Value("${auth.login.rate-limit.enabled:true}") boolean enabled,
+                            @Value("${auth.login.rate-limit.per-email.capacity:5}") long emailCapacity,
+                            @Value("${auth.login.rate-limit.per-email.refill-period:1m}") Duration emailRefillPeriod,
+                            @Value("${auth.login.rate-limit.per-ip.capacity:20}") long ipCapacity,
+                            @Value("${auth.login.rate-limit.per-ip.refill-period:1m}") Duration ipRefillPeriod,
+                            @Value("${auth.login.rate-limit.max-keys:100000}") long maxKeys) {
+        this(meterRegistry, enabled, emailCapacity, emailRefillPeriod, ipCapacity, ipRefillPeriod, maxKeys, System::nanoTime);
+    }
+
+    LoginRateLimiter(MeterRegistry meterRegistry,
+                     boolean enabled,
+                     long emailCapacity,
+                     Duration emailRefillPeriod,
+                     long ipCapacity,
+                     Duration ipRefillPeriod,
+                     long maxKeys,
+                     LongSupplier clock) {
+        this.enabled = enabled;
+        this.emailCapacity = emailCapacity;
+        this.emailRefillNanos = emailRefillPeriod.toNanos();
+        this.ipCapacity = ipCapacity;
+        this.ipRefillNanos = ipRefillPeriod.toNanos();
+        this.clock = clock;
+        this.emailBuckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(emailRefillPeriod)
+                .build();
+        this.ipBuckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(ipRefillPeriod)
+                .build();
+        this.emailRejections = Counter.builder("auth.login.throttled")
+                .description("Login attempts refused by the rate limiter")
+                .tag("key", "email")
+                .register(meterRegistry);
+        this.ipRejections = Counter.builder("auth.login.throttled")
+                .description("Login attempts refused by the rate limiter")
+                .tag("key", "ip")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Takes one attempt from the caller's IP bucket and then from the account's bucket.
+     */
+    public void check(String email, String ipAddress) throws LoginRateLimitedException {
+        if (!enabled) {
+            return;
+        }
+        long now = clock.getAsLong();
+        if (ipAddress != null) {
+            long wait = ipBuckets.get(ipAddress, key -> new TokenBucket(ipCapacity, ipRefillNanos, now)).tryConsume(now);
+            if (wait > 0) {
+                ipRejections.increment();
+                throw new LoginRateLimitedException("Too many login attempts, please retry later", toRetryAfterSeconds(wait));
+            }
+        }
+        if (email != null) {
+            String account = email.trim().toLowerCase(Locale.ROOT);
+            long wait = emailBuckets.get(account, key -> new TokenBucket(emailCapacity, emailRefillNanos, now)).tryConsume(now);
+            if (wait > 0) {
+                emailRejections.increment();
+                throw new LoginRateLimitedException("Too many login attempts, please retry later", toRetryAfterSeconds(wait));
+            }
+        }
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+}
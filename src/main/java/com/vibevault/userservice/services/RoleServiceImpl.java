@@ -4,6 +4,7 @@ import com.vibevault.userservice.exceptions.auth.RoleNotFoundException;
 import com.vibevault.userservice.exceptions.role.RoleAlreadyExistsException;
 import com.vibevault.userservice.models.Role;
 import com.vibevault.userservice.repositories.RoleRepository;
+import com.vibevault.userservice.services.cache.RoleCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -14,10 +15,12 @@ import java.util.UUID;
 @Service
 public class RoleServiceImpl implements RoleService {
     private RoleRepository roleRepository;
+    private RoleCache roleCache;
 
     @Autowired
-    public RoleServiceImpl(RoleRepository roleRepository) {
+    public RoleServiceImpl(RoleRepository roleRepository, RoleCache roleCache) {
         this.roleRepository = roleRepository;
+        this.roleCache = roleCache;
     }
     @Override
     public Role createRole(String roleName, String description) {
@@ -28,7 +31,9 @@ public class RoleServiceImpl implements RoleService {
         Role newRole = new Role();
         newRole.setName(roleName.toUpperCase());
         newRole.setDescription(description);
-        return roleRepository.save(newRole);
+        Role savedRole = roleRepository.save(newRole);
+        roleCache.invalidateAll();
+        return savedRole;
     }
 
     @Override
@@ -44,7 +49,9 @@ public class RoleServiceImpl implements RoleService {
         if(description != null && !description.isEmpty() && !description.equals(roleToUpdate.getDescription())) {
             roleToUpdate.setDescription(description);
         }
-        return roleRepository.save(roleToUpdate);
+        Role savedRole = roleRepository.save(roleToUpdate);
+        roleCache.invalidateAll();
+        return savedRole;
     }
 
     @Override
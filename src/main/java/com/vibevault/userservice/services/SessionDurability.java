@@ -0,0 +1,14 @@
+package com.vibevault.userservice.services;
+
+/**
+ * When a login's session row is written, relative to the login response.
+ */
+public enum SessionDurability {
+    // Saved through JPA on the request thread before the response
+    SYNC,
+    // Queued and written in a shared JDBC batch; the login waits until its batch commits
+    GROUP_COMMIT,
+    // Queued and written in a shared JDBC batch after the response; a crash can lose
+    // sessions from the last flush interval, whose tokens then stop validating
+    ASYNC
+}
@@ -0,0 +1,128 @@
+package com.vibevault.userservice.services;
+
+import com.vibevault.userservice.models.SessionStatus;
+import com.vibevault.userservice.repositories.SessionRepository;
+import com.vibevault.userservice.repositories.projections.SessionExpiryKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Marks ACTIVE sessions past their expiry as EXPIRED and, once they have been expired for
+ * the retention window, deletes them together with their sessions_role rows. Both passes
+ * walk the matching sessions in (expiredAt, id) order, which the expiry indexes serve
+ * directly, one chunk per transaction, so each statement touches at most chunk-size rows
+ * and no lock is held for the whole sweep.
+ * Every step is idempotent, so instances sweeping concurrently only repeat work.
+ */
+@Component
+@Slf4j
+public class SessionSweeper {
+    // Sorts before every other key: no session expires at the epoch with the all-zero id
+    private static final SessionExpiryKey FIRST_KEY = new SessionExpiryKey(new UUID(0, 0), new Date(0));
+
+    private final SessionRepository sessionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final Duration retention;
+    private final Counter expired;
+    private final Counter deleted;
+    private final Timer runs;
+
+    public SessionSweeper(SessionRepository sessionRepository,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry,
+                          @Value("${auth.session.sweeper.enabled:true}") boolean enabled,
+                          @Value("${auth.session.sweeper.chunk-size:1000}") int chunkSize,
+                          @Value("${auth.session.sweeper.retention:7d}") Duration retention) {
+        this.sessionRepository = sessionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.retention = retention;
+        this.expired = Counter.builder("auth.session.sweeper.expired")
+                .description("Sessions moved from ACTIVE to EXPIRED")
+                .register(meterRegistry);
+        this.deleted = Counter.builder("auth.session.sweeper.deleted")
+                .description("Sessions deleted after the retention window")
+                .register(meterRegistry);
+        this.runs = Timer.builder("auth.session.sweeper.run")
+                .description("Time taken by one sweep")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.session.sweeper.interval:5m}",
+            initialDelayString = "${auth.session.sweeper.interval:5m}")
+    public void sweep() {
+        if (!enabled) {
+            return;
+        }
+        runs.record(() -> {
+            Date now = new Date();
+            long expiredCount = expireSessions(now);
+            long deletedCount = deleteSessions(new Date(now.getTime() - retention.toMillis()));
+            if (expiredCount > 0 || deletedCount > 0) {
+                log.info("Session sweep expired {} and deleted {} sessions", expiredCount, deletedCount);
+            }
+        });
+    }
+
+    long expireSessions(Date now) {
+        long total = 0;
+        SessionExpiryKey after = FIRST_KEY;
+        while (true) {
+            List<SessionExpiryKey> keys = sessionRepository.findKeysByStatusExpiredBefore(SessionStatus.ACTIVE, now,
+                    after.expiredAt(), after.id(), Limit.of(chunkSize));
+            if (keys.isEmpty()) {
+                return total;
+            }
+            List<UUID> ids = keys.stream().map(SessionExpiryKey::id).toList();
+            Integer updated = transactionTemplate.execute(status ->
+                    sessionRepository.markExpired(ids, SessionStatus.ACTIVE, SessionStatus.EXPIRED, now));
+            int count = updated == null ? 0 : updated;
+            expired.increment(count);
+            total += count;
+            if (keys.size() < chunkSize) {
+                return total;
+            }
+            after = keys.getLast();
+        }
+    }
+
+    long deleteSessions(Date cutoff) {
+        long total = 0;
+        SessionExpiryKey after = FIRST_KEY;
+        while (true) {
+            List<SessionExpiryKey> keys = sessionRepository.findKeysExpiredBefore(cutoff,
+                    after.expiredAt(), after.id(), Limit.of(chunkSize));
+            if (keys.isEmpty()) {
+                return total;
+            }
+            List<UUID> ids = keys.stream().map(SessionExpiryKey::id).toList();
+            Integer removed = transactionTemplate.execute(status -> {
+                sessionRepository.deleteSessionRoles(ids);
+                return sessionRepository.deleteAllByIdIn(ids);
+            });
+            int count = removed == null ? 0 : removed;
+            deleted.increment(count);
+            total += count;
+            if (keys.size() < chunkSize) {
+                return total;
+            }
+            after = keys.getLast();
+        }
+    }
+}
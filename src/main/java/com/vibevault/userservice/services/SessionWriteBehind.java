@@ -0,0 +1,325 @@
+package com.vibevault.userservice.services;
+
+import com.vibevault.userservice.models.Role;
+import com.vibevault.userservice.models.Session;
+import com.vibevault.userservice.models.UserRole;
+import com.vibevault.userservice.repositories.SessionRepository;
+import com.vibevault.userservice.repositories.projections.SessionValidationView;
+import com.vibevault.userservice.services.utils.UuidBytes;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Persists login sessions. In SYNC mode this is a plain repository save. Otherwise sessions
+ * from concurrent logins are queued and written by one background thread as JDBC batches
+ * (one statement for sessions, one for sessions_role) every flush interval, or sooner when
+ * a batch fills up. Until its batch commits, a session is served to token validation from
+ * the in-memory pending index, so a token works as soon as login returns.
+ * <p>
+ * A GROUP_COMMIT login that times out cancels its session unless a batch has already
+ * picked it up, in which case it waits for that batch, so a failed login never leaves an
+ * active session behind.
+ */
+@Component
+@Slf4j
+public class SessionWriteBehind implements AutoCloseable {
+    static final String INSERT_SESSION = "INSERT INTO sessions (id, created_at, last_modified_at, is_deleted, "
+            + "created_by, last_modified_by, version, user_id, token, token_hash, device, ip_address, expired_at, status) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    static final String INSERT_SESSION_ROLE = "INSERT INTO sessions_role (sessions_id, role_id) VALUES (?, ?)";
+    // ASYNC sessions are dropped after this many failed flushes instead of retried forever
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final SessionRepository sessionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SessionDurability durability;
+    private final int maxBatchSize;
+    private final long groupCommitTimeoutMillis;
+    private final BlockingQueue<PendingSession> queue = new LinkedBlockingQueue<>();
+    private final ConcurrentHashMap<String, PendingSession> pendingByTokenHash = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ScheduledExecutorService flusher;
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter failures;
+
+    @Autowired
+    public SessionWriteBehind(SessionRepository sessionRepository,
+                              DataSource dataSource,
+                              PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${auth.session.write.durability:SYNC}") SessionDurability durability,
+                              @Value("${auth.session.write.flush-interval:10ms}") Duration flushInterval,
+                              @Value("${auth.session.write.max-batch-size:256}") int maxBatchSize,
+                              @Value("${auth.session.write.group-commit-timeout:5s}") Duration groupCommitTimeout) {
+        this(sessionRepository, new JdbcTemplate(dataSource), new TransactionTemplate(transactionManager),
+                meterRegistry, durability, flushInterval, maxBatchSize, groupCommitTimeout);
+    }
+
+    SessionWriteBehind(SessionRepository sessionRepository,
+                       JdbcTemplate jdbcTemplate,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry,
+                       SessionDurability durability,
+                       Duration flushInterval,
+                       int maxBatchSize,
+                       Duration groupCommitTimeout) {
+        this.sessionRepository = sessionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.durability = durability;
+        this.maxBatchSize = maxBatchSize;
+        this.groupCommitTimeoutMillis = groupCommitTimeout.toMillis();
+
+        if (durability == SessionDurability.SYNC) {
+            this.flusher = null;
+        } else {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "session-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long intervalMillis = Math.max(1, flushInterval.toMillis());
+            flusher.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+
+        Gauge.builder("auth.session.write.pending", pendingByTokenHash, ConcurrentHashMap::size)
+                .description("Sessions accepted at login but not yet written")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("auth.session.write.flush")
+                .description("Time to write one batch of sessions")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("auth.session.write.batch.size")
+                .description("Sessions written per batch")
+                .register(meterRegistry);
+        this.failures = Counter.builder("auth.session.write.failed")
+                .description("Session batches that failed to write")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Persists a new session. userRoles are the owner's current roles, served to validation
+     * while the session is pending.
+     */
+    public Session persist(Session session, List<UserRole> userRoles) {
+        if (durability == SessionDurability.SYNC) {
+            return sessionRepository.save(session);
+        }
+        Date now = new Date();
+        session.setId(UUID.randomUUID());
+        session.setCreatedAt(now);
+        session.setLastModifiedAt(now);
+        session.setVersion(0);
+
+        PendingSession pending = new PendingSession(session, List.copyOf(userRoles));
+        pendingByTokenHash.put(session.getTokenHash(), pending);
+        queue.add(pending);
+        if (queue.size() >= maxBatchSize) {
+            flusher.execute(this::flushQuietly);
+        }
+        if (durability == SessionDurability.GROUP_COMMIT) {
+            awaitWrite(pending);
+        }
+        return session;
+    }
+
+    /**
+     * The validation view of a session that is accepted but not yet written.
+     */
+    public Optional<SessionValidationView> pending(String tokenHash) {
+        PendingSession pending = pendingByTokenHash.get(tokenHash);
+        if (pending == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new SessionValidationView(pending.session, pending.userRoles, null));
+    }
+
+    /**
+     * Writes everything queued so far if the given session is still pending, so that a
+     * following update of its row finds it. Returns false if the session is still pending
+     * afterwards because its batch failed.
+     */
+    public boolean flushIfPending(String tokenHash) {
+        if (!pendingByTokenHash.containsKey(tokenHash)) {
+            return true;
+        }
+        flush();
+        return !pendingByTokenHash.containsKey(tokenHash);
+    }
+
+    public void flush() {
+        if (durability == SessionDurability.SYNC) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            List<PendingSession> retries = new ArrayList<>();
+            List<PendingSession> batch = new ArrayList<>(maxBatchSize);
+            while (queue.drainTo(batch, maxBatchSize) > 0) {
+                write(batch, retries);
+                batch = new ArrayList<>(maxBatchSize);
+            }
+            // Failed sessions wait for the next flush rather than spinning on a broken database
+            queue.addAll(retries);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Session flush failed", e);
+        }
+    }
+
+    private void write(List<PendingSession> batch, List<PendingSession> retries) {
+        // Sessions whose login gave up waiting are left out; the rest can no longer be cancelled
+        batch.removeIf(pending -> !pending.state.compareAndSet(PendingState.QUEUED, PendingState.WRITING));
+        if (batch.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SESSION, batch, batch.size(), (ps, pending) -> {
+                    Session session = pending.session;
+                    ps.setBytes(1, UuidBytes.of(session.getId()));
+                    ps.setTimestamp(2, new Timestamp(session.getCreatedAt().getTime()));
+                    ps.setTimestamp(3, new Timestamp(session.getLastModifiedAt().getTime()));
+                    ps.setBoolean(4, session.isDeleted());
+                    ps.setBytes(5, UuidBytes.of(session.getCreatedBy()));
+                    ps.setBytes(6, UuidBytes.of(session.getLastModifiedBy()));
+                    ps.setInt(7, session.getVersion());
+                    ps.setBytes(8, UuidBytes.of(session.getUser().getId()));
+                    ps.setString(9, session.getToken());
+                    ps.setString(10, session.getTokenHash());
+                    ps.setString(11, session.getDevice());
+                    ps.setString(12, session.getIpAddress());
+                    ps.setTimestamp(13, new Timestamp(session.getExpiredAt().getTime()));
+                    ps.setInt(14, session.getStatus().ordinal());
+                });
+                List<Object[]> sessionRoles = new ArrayList<>();
+                for (PendingSession pending : batch) {
+                    for (Role role : pending.session.getRole()) {
+                        sessionRoles.add(new Object[]{UuidBytes.of(pending.session.getId()), UuidBytes.of(role.getId())});
+                    }
+                }
+                jdbcTemplate.batchUpdate(INSERT_SESSION_ROLE, sessionRoles);
+            });
+        } catch (RuntimeException e) {
+            failures.increment();
+            for (PendingSession pending : batch) {
+                pending.attempts++;
+                if (durability == SessionDurability.GROUP_COMMIT || pending.attempts >= MAX_ATTEMPTS) {
+                    pendingByTokenHash.remove(pending.session.getTokenHash(), pending);
+                    pending.written.completeExceptionally(e);
+                } else {
+                    pending.state.set(PendingState.QUEUED);
+                    retries.add(pending);
+                }
+            }
+            log.error("Failed to write {} sessions", batch.size(), e);
+            return;
+        }
+        flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        batchSizes.record(batch.size());
+        for (PendingSession pending : batch) {
+            pendingByTokenHash.remove(pending.session.getTokenHash(), pending);
+            pending.written.complete(null);
+        }
+    }
+
+    private void awaitWrite(PendingSession pending) {
+        try {
+            pending.written.get(groupCommitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw writeFailure(e);
+        } catch (TimeoutException e) {
+            if (cancel(pending)) {
+                throw new DataAccessResourceFailureException("Session write timed out");
+            }
+            // A batch already holds the session, so its outcome decides the login
+            try {
+                pending.written.get();
+            } catch (ExecutionException failed) {
+                throw writeFailure(failed);
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+                throw new DataAccessResourceFailureException("Interrupted while writing session");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel(pending);
+            throw new DataAccessResourceFailureException("Interrupted while writing session");
+        }
+    }
+
+    private boolean cancel(PendingSession pending) {
+        if (!pending.state.compareAndSet(PendingState.QUEUED, PendingState.CANCELLED)) {
+            return false;
+        }
+        queue.remove(pending);
+        pendingByTokenHash.remove(pending.session.getTokenHash(), pending);
+        return true;
+    }
+
+    private static RuntimeException writeFailure(ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException cause) {
+            return cause;
+        }
+        return new DataAccessResourceFailureException("Session write failed", e.getCause());
+    }
+
+    @Override
+    public void close() {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        // Write what is still queued before the connection pool goes away
+        flushQuietly();
+    }
+
+    private static final class PendingSession {
+        private final Session session;
+        private final List<UserRole> userRoles;
+        private final CompletableFuture<Void> written = new CompletableFuture<>();
+        private final AtomicReference<PendingState> state = new AtomicReference<>(PendingState.QUEUED);
+        private int attempts;
+
+        private PendingSession(Session session, List<UserRole> userRoles) {
+            this.session = session;
+            this.userRoles = userRoles;
+        }
+    }
+
+    private enum PendingState {
+        QUEUED, WRITING, CANCELLED
+    }
+}
@@ -0,0 +1,90 @@
+package com.vibevault.userservice.services;
+
+import com.vibevault.userservice.repositories.JWTRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static com.vibevault.userservice.services.Consts.JWT_EXPIRATION_TIME;
+import static com.vibevault.userservice.services.Consts.JWT_SECRET_EXPIRATION_TIME_IN_DAYS;
+
+/**
+ * Deletes per-user signing keys that were retired by rotation. Retiring a key on one pod
+ * does not stop the others: UserSigningKeyCache keeps signing with it until its rotation
+ * time, createdAt plus JWT_SECRET_EXPIRATION_TIME_IN_DAYS. Every token it signed has
+ * therefore expired JWT_EXPIRATION_TIME after that; past that plus a grace period the row
+ * is only dead weight in the table KeyLocatorImpl reads. Rows are deleted in id-ordered
+ * chunks, one transaction each, and evicted from the verification key cache.
+ */
+@Component
+@Slf4j
+public class SigningKeyPurger {
+    private static final UUID FIRST_ID = new UUID(0, 0);
+    private static final long SIGNING_LIFETIME = Duration.ofDays(JWT_SECRET_EXPIRATION_TIME_IN_DAYS).toMillis();
+
+    private final JWTRepository jwtRepository;
+    private final KeyLocatorImpl keyLocator;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final Duration grace;
+    private final Counter purged;
+
+    public SigningKeyPurger(JWTRepository jwtRepository,
+                            KeyLocatorImpl keyLocator,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${auth.signing-key.purge.enabled:true}") boolean enabled,
+                            @Value("${auth.signing-key.purge.chunk-size:500}") int chunkSize,
+                            @Value("${auth.signing-key.purge.grace:1h}") Duration grace) {
+        this.jwtRepository = jwtRepository;
+        this.keyLocator = keyLocator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.chunkSize = chunkSize;
+        this.grace = grace;
+        this.purged = Counter.builder("auth.signing-key.purged")
+                .description("Retired signing keys deleted from the jwt table")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${auth.signing-key.purge.interval:1h}",
+            initialDelayString = "${auth.signing-key.purge.interval:1h}")
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+        Date cutoff = new Date(System.currentTimeMillis() - SIGNING_LIFETIME - JWT_EXPIRATION_TIME - grace.toMillis());
+        long total = 0;
+        UUID after = FIRST_ID;
+        while (true) {
+            List<UUID> ids = jwtRepository.findRetiredIdsCreatedBefore(cutoff, after, Limit.of(chunkSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            Integer deleted = transactionTemplate.execute(status -> jwtRepository.deleteRetiredByIdIn(ids));
+            keyLocator.evict(ids);
+            int count = deleted == null ? 0 : deleted;
+            purged.increment(count);
+            total += count;
+            if (ids.size() < chunkSize) {
+                break;
+            }
+            after = ids.getLast();
+        }
+        if (total > 0) {
+            log.info("Purged {} retired signing keys", total);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.vibevault.userservice.services;
+
+import io.jsonwebtoken.JwtException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.vibevault.userservice.services.Consts.JWT_SECRET_ALGORITHM;
+
+/**
+ * Service-wide signing keys that rotate every rotation period. The key for epoch n is
+ * HMAC-SHA512(master secret, n), so every pod configured with the same master secret
+ * derives the same keys without storing or exchanging them, and neither signing nor
+ * verification touches the database. Tokens carry kid "kr-n".
+ *
+ * A key keeps verifying for the overlap window after its epoch ends, which should be at
+ * least the token lifetime so tokens issued at the end of an epoch stay valid until they
+ * expire. Verification works whenever a master secret is configured, so switching back
+ * to per-user keys does not invalidate outstanding keyring tokens.
+ */
+@Component
+public class SigningKeyring {
+    public static final String KID_PREFIX = "kr-";
+    // Tolerate pods whose clocks run slightly ahead when a new epoch starts
+    private static final Duration CLOCK_SKEW = Duration.ofMinutes(1);
+
+    private final boolean signing;
+    private final byte[] masterSecret;
+    private final long rotationMillis;
+    private final long overlapMillis;
+    private final Clock clock;
+    private final ConcurrentHashMap<Long, SecretKey> keys = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SigningKeyring(@Value("${auth.signing.mode:PER_USER}") SigningMode mode,
+                          @Value("${auth.signing.keyring.master-secret:}") String masterSecret,
+                          @Value("${auth.signing.keyring.rotation-period:1d}") Duration rotationPeriod,
+                          @Value("${auth.signing.keyring.overlap:1d}") Duration overlap) {
+        this(mode, masterSecret, rotationPeriod, overlap, Clock.systemUTC());
+    }
+
+    SigningKeyring(SigningMode mode, String masterSecret, Duration rotationPeriod, Duration overlap, Clock clock) {
+        this.masterSecret = masterSecret == null || masterSecret.isBlank()
+                ? null
+                : Base64.getDecoder().decode(masterSecret.trim());
+        this.signing = mode == SigningMode.KEYRING;
+        if (signing && (this.masterSecret == null || this.masterSecret.length < 32)) {
+            throw new IllegalStateException("Keyring signing needs a Base64 master secret of at least 32 bytes");
+        }
+        this.rotationMillis = rotationPeriod.toMillis();
+        this.overlapMillis = overlap.toMillis();
+        this.clock = clock;
+    }
+
+    public static boolean isKeyringKid(String kid) {
+        return kid != null && kid.startsWith(KID_PREFIX);
+    }
+
+    public boolean isSigning() {
+        return signing;
+    }
+
+    /**
+     * The key new tokens are signed with.
+     */
+    public SigningKey current() {
+        long epoch = Math.floorDiv(clock.millis(), rotationMillis);
+        return new SigningKey(KID_PREFIX + epoch, key(epoch));
+    }
+
+    /**
+     * The key for a keyring kid, if that kid is still inside its verification window.
+     */
+    public Optional<SecretKey> verificationKey(String kid) {
+        if (masterSecret == null || !isKeyringKid(kid)) {
+            return Optional.empty();
+        }
+        long epoch;
+        try {
+            epoch = Long.parseLong(kid.substring(KID_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+        long now = clock.millis();
+        long epochStart = epoch * rotationMillis;
+        long epochEnd = epochStart + rotationMillis;
+        if (epochStart > now + CLOCK_SKEW.toMillis() || epochEnd + overlapMillis <= now) {
+            return Optional.empty();
+        }
+        return Optional.of(key(epoch));
+    }
+
+    private SecretKey key(long epoch) {
+        SecretKey key = keys.computeIfAbsent(epoch, this::derive);
+        if (keys.size() > 8) {
+            // Forget keys whose verification window has closed
+            long oldest = Math.floorDiv(clock.millis() - overlapMillis, rotationMillis) - 1;
+            keys.keySet().removeIf(e -> e < oldest);
+        }
+        return key;
+    }
+
+    private SecretKey derive(long epoch) {
+        try {
+            Mac mac = Mac.getInstance(JWT_SECRET_ALGORITHM);
+            mac.init(new SecretKeySpec(masterSecret, JWT_SECRET_ALGORITHM));
+            byte[] keyBytes = mac.doFinal(("jwt-keyring:" + epoch).getBytes(StandardCharsets.UTF_8));
+            return new SecretKeySpec(keyBytes, JWT_SECRET_ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            throw new JwtException("Could not derive keyring key for epoch " + epoch, e);
+        }
+    }
+
+    public record SigningKey(String kid, SecretKey key) {}
+}
@@ -0,0 +1,11 @@
+package com.vibevault.userservice.services;
+
+/**
+ * Where the HMAC keys that sign issued tokens come from.
+ */
+public enum SigningMode {
+    // One secret per user, stored in the jwt table and rotated by age
+    PER_USER,
+    // A few service-wide keys derived in memory from a shared master secret (see SigningKeyring)
+    KEYRING
+}
@@ -0,0 +1,24 @@
+package com.vibevault.userservice.services;
+
+import com.vibevault.userservice.models.UserRole;
+
+import java.util.List;
+
+/**
+ * Outcome of validating one token of a batch: either the user's roles or the
+ * exception the single-token path would have thrown.
+ */
+public record TokenValidationResult(List<UserRole> userRoles, RuntimeException error) {
+
+    public static TokenValidationResult valid(List<UserRole> userRoles) {
+        return new TokenValidationResult(userRoles, null);
+    }
+
+    public static TokenValidationResult invalid(RuntimeException error) {
+        return new TokenValidationResult(null, error);
+    }
+
+    public boolean isValid() {
+        return error == null;
+    }
+}
@@ -0,0 +1,7 @@
+package com.vibevault.userservice.services;
+
+/**
+ * A row of a bulk import that was not imported. line is 1-based within the uploaded file.
+ */
+public record UserImportError(long line, String email, String message) {
+}
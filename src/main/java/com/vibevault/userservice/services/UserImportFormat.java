@@ -0,0 +1,10 @@
+package com.vibevault.userservice.services;
+
+/**
+ * Encodings accepted by the bulk user import. Both carry email, password, name, phone and
+ * role per row; CSV needs a header line naming those columns.
+ */
+public enum UserImportFormat {
+    NDJSON,
+    CSV
+}
@@ -0,0 +1,14 @@
+package com.vibevault.userservice.services;
+
+import java.io.Reader;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+public interface UserImportService {
+    /**
+     * Creates a user and user role for every valid row read from reader. Rejected rows are
+     * passed to errors as they are found rather than collected, so memory use does not
+     * grow with the file.
+     */
+    UserImportSummary importUsers(Reader reader, UserImportFormat format, UUID importedBy, Consumer<UserImportError> errors);
+}
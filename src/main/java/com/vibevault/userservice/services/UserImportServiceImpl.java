@@ -0,0 +1,382 @@
+package com.vibevault.userservice.services;
+
+import com.vibevault.userservice.exceptions.auth.PasswordHashingUnavailableException;
+import com.vibevault.userservice.models.Role;
+import com.vibevault.userservice.repositories.UserRepository;
+import com.vibevault.userservice.repositories.projections.UserIdentity;
+import com.vibevault.userservice.services.cache.RoleCache;
+import com.vibevault.userservice.services.utils.CsvLine;
+import com.vibevault.userservice.services.utils.UuidBytes;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Streams a bulk import through in chunks: each chunk is validated, deduplicated against
+ * itself and (with one query) against existing users, hashed in parallel and written with
+ * one JDBC batch per table in a single transaction. Earlier chunks are committed before
+ * later ones are checked, so duplicates across chunks are caught by the database probe.
+ *
+ * Hashing goes through the shared PasswordEncoder, whose bounded pool also serves logins;
+ * at most hash-parallelism import rows are hashed at a time so an import cannot fill that
+ * pool's queue.
+ */
+@Service
+@Slf4j
+public class UserImportServiceImpl implements UserImportService, AutoCloseable {
+    static final String INSERT_USER = "INSERT INTO users (id, created_at, last_modified_at, is_deleted, "
+            + "created_by, last_modified_by, version, first_name, last_name, email, password, phone_number) "
+            + "VALUES (?, ?, ?, ?, ?, ?, 0, ?, ?, ?, ?, ?)";
+    static final String INSERT_USER_ROLE = "INSERT INTO user_roles (id, created_at, last_modified_at, is_deleted, "
+            + "created_by, last_modified_by, version, user_id, role_id, assigned_at, assigned_by_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?, 0, ?, ?, ?, ?)";
+    private static final List<String> COLUMNS = List.of("email", "password", "name", "phone", "role");
+    private static final int HASH_ATTEMPTS = 5;
+
+    private final UserRepository userRepository;
+    private final RoleCache roleCache;
+    private final PasswordEncoder passwordEncoder;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final ExecutorService hashPool;
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final Counter imported;
+    private final Counter rejected;
+
+    @Autowired
+    public UserImportServiceImpl(UserRepository userRepository,
+                                 RoleCache roleCache,
+                                 PasswordEncoder passwordEncoder,
+                                 DataSource dataSource,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${auth.user-import.chunk-size:500}") int chunkSize,
+                                 @Value("${auth.user-import.hash-parallelism:2}") int hashParallelism) {
+        this(userRepository, roleCache, passwordEncoder, new JdbcTemplate(dataSource),
+                new TransactionTemplate(transactionManager), meterRegistry, chunkSize, hashParallelism);
+    }
+
+    UserImportServiceImpl(UserRepository userRepository,
+                          RoleCache roleCache,
+                          PasswordEncoder passwordEncoder,
+                          JdbcTemplate jdbcTemplate,
+                          TransactionTemplate transactionTemplate,
+                          MeterRegistry meterRegistry,
+                          int chunkSize,
+                          int hashParallelism) {
+        this.userRepository = userRepository;
+        this.roleCache = roleCache;
+        this.passwordEncoder = passwordEncoder;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.hashPool = Executors.newFixedThreadPool(hashParallelism, runnable -> {
+            Thread thread = new Thread(runnable, "user-import-hash-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.imported = Counter.builder("auth.user-import.created")
+                .description("Users created by bulk import")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("auth.user-import.failed")
+                .description("Bulk import rows that were not imported")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public UserImportSummary importUsers(Reader reader, UserImportFormat format, UUID importedBy, Consumer<UserImportError> errors) {
+        BufferedReader lines = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        Tally tally = new Tally(errors);
+        try {
+            long lineNumber = 0;
+            Map<String, Integer> columns = null;
+            if (format == UserImportFormat.CSV) {
+                String header = lines.readLine();
+                lineNumber++;
+                columns = header == null ? null : csvColumns(header);
+                if (columns == null) {
+                    tally.reject(new UserImportError(1, null, "CSV header must name the columns " + String.join(",", COLUMNS)));
+                    return tally.summary();
+                }
+            }
+
+            List<ImportRow> chunk = new ArrayList<>(chunkSize);
+            String line;
+            while ((line = lines.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                tally.rows++;
+                try {
+                    chunk.add(format == UserImportFormat.CSV ? csvRow(line, lineNumber, columns) : jsonRow(line, lineNumber));
+                } catch (RuntimeException e) {
+                    tally.reject(new UserImportError(lineNumber, null, "Malformed row"));
+                }
+                if (chunk.size() >= chunkSize) {
+                    importChunk(chunk, importedBy, tally);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, importedBy, tally);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return tally.summary();
+    }
+
+    private void importChunk(List<ImportRow> chunk, UUID importedBy, Tally tally) {
+        // Field checks, role lookup and duplicates within the chunk
+        List<Candidate> candidates = new ArrayList<>(chunk.size());
+        Set<String> emails = new HashSet<>();
+        Set<String> phones = new HashSet<>();
+        for (ImportRow row : chunk) {
+            String problem = check(row);
+            Optional<Role> role = problem == null ? roleCache.findByName(row.role()) : Optional.empty();
+            if (problem == null && role.isEmpty()) {
+                problem = "Role not found: " + row.role();
+            }
+            if (problem == null && !emails.add(row.email().toLowerCase(Locale.ROOT))) {
+                problem = "Duplicate email in file";
+            }
+            if (problem == null && !phones.add(row.phone())) {
+                problem = "Duplicate phone number in file";
+            }
+            if (problem != null) {
+                tally.reject(new UserImportError(row.line(), row.email(), problem));
+            } else {
+                candidates.add(new Candidate(row, role.get()));
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        // One probe for every email and phone number in the chunk
+        Set<String> takenEmails = new HashSet<>();
+        Set<String> takenPhones = new HashSet<>();
+        for (UserIdentity identity : userRepository.findIdentitiesByEmailInOrPhoneNumberIn(emails, phones)) {
+            if (identity.email() != null) {
+                takenEmails.add(identity.email().toLowerCase(Locale.ROOT));
+            }
+            takenPhones.add(identity.phoneNumber());
+        }
+        candidates.removeIf(candidate -> {
+            ImportRow row = candidate.row();
+            if (takenEmails.contains(row.email().toLowerCase(Locale.ROOT))) {
+                tally.reject(new UserImportError(row.line(), row.email(), "Email already exists"));
+                return true;
+            }
+            if (takenPhones.contains(row.phone())) {
+                tally.reject(new UserImportError(row.line(), row.email(), "Phone number already exists"));
+                return true;
+            }
+            return false;
+        });
+
+        // Hash in parallel, then keep the rows whose hash succeeded
+        List<CompletableFuture<String>> hashes = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates) {
+            hashes.add(CompletableFuture.supplyAsync(() -> hash(candidate.row().password()), hashPool));
+        }
+        List<Candidate> hashed = new ArrayList<>(candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            Candidate candidate = candidates.get(i);
+            try {
+                hashed.add(candidate.withPasswordHash(hashes.get(i).join()));
+            } catch (CompletionException e) {
+                tally.reject(new UserImportError(candidate.row().line(), candidate.row().email(), "Password could not be hashed"));
+            }
+        }
+        if (hashed.isEmpty()) {
+            return;
+        }
+
+        int created = insert(hashed, importedBy, tally);
+        tally.created += created;
+        imported.increment(created);
+    }
+
+    private String check(ImportRow row) {
+        if (row.email() == null || row.email().isEmpty()) {
+            return "Email cannot be empty";
+        }
+        if (row.password() == null || row.password().isEmpty()) {
+            return "Password cannot be empty";
+        }
+        if (row.phone() == null || row.phone().isEmpty()) {
+            return "Phone number cannot be empty";
+        }
+        if (row.role() == null || row.role().isEmpty()) {
+            return "Role cannot be empty";
+        }
+        return null;
+    }
+
+    private String hash(String password) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return passwordEncoder.encode(password);
+            } catch (PasswordHashingUnavailableException e) {
+                // Logins are saturating the hashing pool; back off instead of failing the row
+                if (attempt >= HASH_ATTEMPTS) {
+                    throw e;
+                }
+                try {
+                    Thread.sleep(100L * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private int insert(List<Candidate> rows, UUID importedBy, Tally tally) {
+        try {
+            write(rows, importedBy);
+            return rows.size();
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent signup took an email or phone number after the probe; find it row by row
+            int created = 0;
+            for (Candidate row : rows) {
+                try {
+                    write(List.of(row), importedBy);
+                    created++;
+                } catch (DataIntegrityViolationException rowFailure) {
+                    tally.reject(new UserImportError(row.row().line(), row.row().email(), "Email or phone number already exists"));
+                }
+            }
+            return created;
+        }
+    }
+
+    private void write(List<Candidate> rows, UUID importedBy) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        byte[] importer = UuidBytes.of(importedBy);
+        List<Object[]> users = new ArrayList<>(rows.size());
+        List<Object[]> userRoles = new ArrayList<>(rows.size());
+        for (Candidate candidate : rows) {
+            ImportRow row = candidate.row();
+            byte[] userId = UuidBytes.of(UUID.randomUUID());
+            String[] names = row.name() == null ? new String[]{""} : row.name().trim().split(" ");
+            users.add(new Object[]{userId, now, now, false, importer, importer,
+                    names[0], names.length > 1 ? names[1] : "", row.email(), candidate.passwordHash(), row.phone()});
+            userRoles.add(new Object[]{UuidBytes.of(UUID.randomUUID()), now, now, false, importer, importer,
+                    userId, UuidBytes.of(candidate.role().getId()), now, importer});
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_USER, users);
+            jdbcTemplate.batchUpdate(INSERT_USER_ROLE, userRoles);
+        });
+    }
+
+    private Map<String, Integer> csvColumns(String header) {
+        List<String> names = CsvLine.parse(header.startsWith("﻿") ? header.substring(1) : header);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).toLowerCase(Locale.ROOT), i);
+        }
+        return columns.keySet().containsAll(COLUMNS) ? columns : null;
+    }
+
+    private ImportRow csvRow(String line, long lineNumber, Map<String, Integer> columns) {
+        List<String> fields = CsvLine.parse(line);
+        return new ImportRow(lineNumber,
+                field(fields, columns.get("email")),
+                field(fields, columns.get("password")),
+                field(fields, columns.get("name")),
+                field(fields, columns.get("phone")),
+                field(fields, columns.get("role")));
+    }
+
+    private static String field(List<String> fields, int index) {
+        return index < fields.size() ? fields.get(index) : null;
+    }
+
+    private ImportRow jsonRow(String line, long lineNumber) {
+        JsonNode node = jsonMapper.readTree(line);
+        if (!node.isObject()) {
+            throw new IllegalArgumentException("Row is not a JSON object");
+        }
+        // Spaces can be part of a password, so it is the one field taken as is
+        return new ImportRow(lineNumber, text(node, "email"), value(node, "password"), text(node, "name"),
+                text(node, "phone"), text(node, "role"));
+    }
+
+    private static String text(JsonNode node, String field) {
+        String value = value(node, field);
+        return value == null ? null : value.trim();
+    }
+
+    private static String value(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asString();
+    }
+
+    @Override
+    public void close() {
+        hashPool.shutdownNow();
+    }
+
+    private record ImportRow(long line, String email, String password, String name, String phone, String role) {}
+
+    private record Candidate(ImportRow row, Role role, String passwordHash) {
+        Candidate(ImportRow row, Role role) {
+            this(row, role, null);
+        }
+
+        Candidate withPasswordHash(String passwordHash) {
+            return new Candidate(row, role, passwordHash);
+        }
+    }
+
+    private final class Tally {
+        private final Consumer<UserImportError> errors;
+        private long rows;
+        private long created;
+        private long failed;
+
+        private Tally(Consumer<UserImportError> errors) {
+            this.errors = errors;
+        }
+
+        private void reject(UserImportError error) {
+            failed++;
+            rejected.increment();
+            errors.accept(error);
+        }
+
+        private UserImportSummary summary() {
+            return new UserImportSummary(rows, created, failed);
+        }
+    }
+}
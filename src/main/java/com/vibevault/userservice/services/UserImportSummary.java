@@ -0,0 +1,7 @@
+package com.vibevault.userservice.services;
+
+/**
+ * Totals for one bulk import: non-blank data rows read, users created and rows rejected.
+ */
+public record UserImportSummary(long rows, long created, long failed) {
+}
@@ -0,0 +1,11 @@
+package com.vibevault.userservice.services;
+
+/**
+ * How {@link AuthServiceImpl#validateToken} decides whether a token is still good.
+ */
+public enum ValidationMode {
+    // Every validation is checked against its session row (through the validated-token cache)
+    STATEFUL,
+    // Signature and claims are enough unless the revocation filter reports the token
+    STATELESS
+}
@@ -0,0 +1,67 @@
+package com.vibevault.userservice.services.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vibevault.userservice.exceptions.auth.InvalidTokenException;
+import com.vibevault.userservice.exceptions.auth.SessionNotFoundException;
+import com.vibevault.userservice.exceptions.auth.TokenExpiredException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Short-lived cache of token digests that recently failed validation, so replayed
+ * garbage, expired or revoked tokens are rejected without another session query and
+ * signature check. Only invalid-token and expiry failures are cached: a bad signature or
+ * claim, an expired token and a revoked session stay that way. Failures that depend on
+ * state that can still change (a session not yet written, a missing user or role) are
+ * looked up again every time. Only the failure type and message are kept; a fresh
+ * exception is built for each rejection.
+ */
+@Component
+public class RejectedTokenCache {
+    private final Cache<String, Rejection> cache;
+
+    public RejectedTokenCache(MeterRegistry meterRegistry,
+                              @Value("${auth.validation.negative-cache.max-size:10000}") long maxSize,
+                              @Value("${auth.validation.negative-cache.ttl:10s}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "rejectedTokens");
+    }
+
+    public Optional<RuntimeException> get(String tokenHash) {
+        Rejection rejection = cache.getIfPresent(tokenHash);
+        return rejection == null ? Optional.empty() : Optional.of(rejection.toException());
+    }
+
+    /**
+     * Remembers a validation failure if it is final. Anything else, including database
+     * or infrastructure failures, is not cached.
+     */
+    public void put(String tokenHash, RuntimeException error) {
+        // A missing session may only be queued on the instance that handled the login
+        if (error instanceof SessionNotFoundException) {
+            return;
+        }
+        if (error instanceof InvalidTokenException || error instanceof TokenExpiredException) {
+            cache.put(tokenHash, new Rejection(error.getClass(), error.getMessage()));
+        }
+    }
+
+    private record Rejection(Class<? extends RuntimeException> type, String message) {
+        RuntimeException toException() {
+            if (type == TokenExpiredException.class) {
+                return new TokenExpiredException(message);
+            }
+            return new InvalidTokenException(message);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.vibevault.userservice.services.cache;
+
+import com.vibevault.userservice.models.SessionStatus;
+import com.vibevault.userservice.repositories.SessionRepository;
+import com.vibevault.userservice.services.ValidationMode;
+import com.vibevault.userservice.services.utils.DigestBloomFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * In-memory set of revoked (logged out or blacklisted, not yet expired) session token
+ * digests used by stateless validation. A Bloom filter can answer false positives, so a
+ * hit only means "ask the sessions table"; a miss means the token was not revoked as of
+ * the last refresh.
+ *
+ * Each instance rebuilds the filter at startup and periodically (which also drops
+ * expired sessions), and polls for new revocations in between. Logouts on this instance
+ * are added immediately; logouts on other instances become visible after one refresh.
+ */
+@Component
+public class RevocationList {
+    private static final List<SessionStatus> REVOKED = List.of(SessionStatus.LOGGED_OUT, SessionStatus.BLACKLISTED);
+
+    private final SessionRepository sessionRepository;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    // Re-read this much history on every refresh so rows committed while the previous
+    // refresh was running (or stamped by a skewed clock) are not missed
+    private final Duration refreshOverlap;
+    private volatile DigestBloomFilter filter;
+    // Local revocations made while a rebuild is running, replayed into the new filter
+    private volatile Queue<String> addedDuringRebuild;
+    private Date lastRefreshAt;
+
+    public RevocationList(SessionRepository sessionRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${auth.validation.mode:STATEFUL}") ValidationMode validationMode,
+                          @Value("${auth.revocation.filter.expected-insertions:100000}") long expectedInsertions,
+                          @Value("${auth.revocation.filter.false-positive-rate:0.001}") double falsePositiveRate,
+                          @Value("${auth.revocation.refresh-interval:30s}") Duration refreshInterval) {
+        this.sessionRepository = sessionRepository;
+        this.enabled = validationMode == ValidationMode.STATELESS;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.refreshOverlap = refreshInterval;
+        this.filter = new DigestBloomFilter(expectedInsertions, falsePositiveRate);
+        Gauge.builder("auth.revocation.filter.entries", this, r -> r.filter.insertions())
+                .description("Token digests in the current revocation filter")
+                .register(meterRegistry);
+    }
+
+    public boolean mightBeRevoked(String tokenHash) {
+        return filter.mightContain(tokenHash);
+    }
+
+    public void add(String tokenHash) {
+        // Record before writing, so an add that reaches the old filter is always replayed
+        Queue<String> added = addedDuringRebuild;
+        if (added != null) {
+            added.add(tokenHash);
+        }
+        filter.put(tokenHash);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${auth.revocation.rebuild-interval:1h}",
+            initialDelayString = "${auth.revocation.rebuild-interval:1h}")
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        Queue<String> added = new ConcurrentLinkedQueue<>();
+        addedDuringRebuild = added;
+        try {
+            Date startedAt = new Date();
+            DigestBloomFilter rebuilt = new DigestBloomFilter(expectedInsertions, falsePositiveRate);
+            sessionRepository.findRevokedTokenHashes(REVOKED, new Date(0), startedAt).forEach(rebuilt::put);
+            filter = rebuilt;
+            added.forEach(rebuilt::put);
+            lastRefreshAt = startedAt;
+        } finally {
+            addedDuringRebuild = null;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${auth.revocation.refresh-interval:30s}",
+            initialDelayString = "${auth.revocation.refresh-interval:30s}")
+    public synchronized void refresh() {
+        if (!enabled || lastRefreshAt == null) {
+            return;
+        }
+        Date startedAt = new Date();
+        Date since = new Date(lastRefreshAt.getTime() - refreshOverlap.toMillis());
+        DigestBloomFilter current = filter;
+        sessionRepository.findRevokedTokenHashes(REVOKED, since, startedAt).forEach(current::put);
+        lastRefreshAt = startedAt;
+    }
+}
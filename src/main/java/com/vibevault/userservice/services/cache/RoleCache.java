@@ -0,0 +1,45 @@
+package com.vibevault.userservice.services.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.vibevault.userservice.models.Role;
+import com.vibevault.userservice.repositories.RoleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Roles by name for signup, which only needs the role's id to reference it. There are a
+ * handful of roles and they rarely change: RoleServiceImpl clears the cache on every
+ * change made through this instance, and the TTL bounds how long a change made on
+ * another instance goes unnoticed. Unknown names are not cached.
+ */
+@Component
+public class RoleCache {
+    private final RoleRepository roleRepository;
+    private final Cache<String, Role> cache;
+
+    public RoleCache(RoleRepository roleRepository,
+                     MeterRegistry meterRegistry,
+                     @Value("${auth.role.cache.ttl:5m}") Duration ttl) {
+        this.roleRepository = roleRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(1000)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "roles");
+    }
+
+    public Optional<Role> findByName(String name) {
+        return Optional.ofNullable(cache.get(name, n -> roleRepository.findByName(n).orElse(null)));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,54 @@
+package com.vibevault.userservice.services.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Verification keys by kid. A kid's secret never changes, so entries only leave the
+ * cache when the jwt row is retired, when they go idle, or when the cache is full.
+ */
+@Component
+public class SigningKeyCache {
+    private final Cache<UUID, SecretKey> cache;
+
+    public SigningKeyCache(MeterRegistry meterRegistry,
+                           @Value("${auth.signing-key.cache.max-size:10000}") long maxSize,
+                           @Value("${auth.signing-key.cache.expire-after-access:24h}") Duration expireAfterAccess) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "signingKeys");
+    }
+
+    /**
+     * Returns the cached key for the kid, loading it with the given function on a miss.
+     * Exceptions thrown by the loader propagate and nothing is cached.
+     */
+    public SecretKey get(UUID kid, Function<UUID, SecretKey> loader) {
+        return cache.get(kid, loader);
+    }
+
+    public void put(UUID kid, SecretKey key) {
+        cache.put(kid, key);
+    }
+
+    public void evict(UUID kid) {
+        cache.invalidate(kid);
+    }
+
+    public void evictAll(Collection<UUID> kids) {
+        cache.invalidateAll(kids);
+    }
+}
@@ -0,0 +1,77 @@
+package com.vibevault.userservice.services.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.vibevault.userservice.services.Consts;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The key each user's tokens are currently signed with, so login does not read the jwt
+ * table. An entry expires exactly when its key is due for rotation (createdAt plus
+ * JWT_SECRET_EXPIRATION_TIME_IN_DAYS). Every pod that cached the same row therefore
+ * goes back to the table at the same moment and picks up whichever replacement key was
+ * written first, instead of signing with a key another pod has already retired.
+ */
+@Component
+public class UserSigningKeyCache {
+    private static final Duration KEY_LIFETIME = Duration.ofDays(Consts.JWT_SECRET_EXPIRATION_TIME_IN_DAYS);
+
+    private final Cache<UUID, ActiveKey> cache;
+
+    public UserSigningKeyCache(MeterRegistry meterRegistry,
+                               @Value("${auth.user-signing-key.cache.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<UUID, ActiveKey>() {
+                    @Override
+                    public long expireAfterCreate(UUID key, ActiveKey value, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), value.rotateAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(UUID key, ActiveKey value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(UUID key, ActiveKey value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "userSigningKeys");
+    }
+
+    public Optional<ActiveKey> get(UUID userId) {
+        ActiveKey activeKey = cache.getIfPresent(userId);
+        if (activeKey == null || !activeKey.rotateAt().isAfter(Instant.now())) {
+            return Optional.empty();
+        }
+        return Optional.of(activeKey);
+    }
+
+    public void put(UUID userId, ActiveKey activeKey) {
+        cache.put(userId, activeKey);
+    }
+
+    public void evict(UUID userId) {
+        cache.invalidate(userId);
+    }
+
+    public record ActiveKey(UUID kid, SecretKey key, Instant createdAt) {
+        public Instant rotateAt() {
+            return createdAt.plus(KEY_LIFETIME);
+        }
+    }
+}
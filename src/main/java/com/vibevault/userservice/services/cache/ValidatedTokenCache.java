@@ -0,0 +1,80 @@
+package com.vibevault.userservice.services.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.vibevault.userservice.models.UserRole;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Bounded cache of successful token validations keyed by token digest.
+ * Each entry lives until the earliest of the JWT exp, the session expiry and the
+ * configured max TTL; the max TTL bounds how long a logout or role change made on
+ * another pod can go unnoticed here.
+ */
+@Component
+public class ValidatedTokenCache {
+    private final Cache<String, CachedValidation> cache;
+    private final Duration maxTtl;
+
+    public ValidatedTokenCache(MeterRegistry meterRegistry,
+                               @Value("${auth.validation.cache.max-size:10000}") long maxSize,
+                               @Value("${auth.validation.cache.max-ttl:60s}") Duration maxTtl) {
+        this.maxTtl = maxTtl;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, CachedValidation>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedValidation value, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedValidation value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedValidation value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, "validatedTokens");
+    }
+
+    public Optional<List<UserRole>> get(String tokenHash) {
+        CachedValidation cached = cache.getIfPresent(tokenHash);
+        if (cached == null || !cached.expiresAt().isAfter(Instant.now())) {
+            return Optional.empty();
+        }
+        return Optional.of(cached.userRoles());
+    }
+
+    public void put(String tokenHash, List<UserRole> userRoles, Date jwtExpiry, Date sessionExpiry) {
+        Instant expiresAt = Instant.now().plus(maxTtl);
+        if (jwtExpiry != null && jwtExpiry.toInstant().isBefore(expiresAt)) {
+            expiresAt = jwtExpiry.toInstant();
+        }
+        if (sessionExpiry != null && sessionExpiry.toInstant().isBefore(expiresAt)) {
+            expiresAt = sessionExpiry.toInstant();
+        }
+        cache.put(tokenHash, new CachedValidation(List.copyOf(userRoles), expiresAt));
+    }
+
+    public void evict(String tokenHash) {
+        cache.invalidate(tokenHash);
+    }
+
+    private record CachedValidation(List<UserRole> userRoles, Instant expiresAt) {}
+}
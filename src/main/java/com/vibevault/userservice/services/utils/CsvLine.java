@@ -0,0 +1,60 @@
+package com.vibevault.userservice.services.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits one CSV record into fields: comma separated, optionally double-quoted, with ""
+ * for a literal quote inside quotes. Whitespace around a field is dropped unless it is
+ * inside quotes, so a value with leading or trailing spaces has to be quoted. Records
+ * spanning several lines are not supported.
+ */
+public final class CsvLine {
+    private CsvLine() {
+    }
+
+    public static List<String> parse(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        // Length of the field up to its last quoted character, which trimming must keep
+        int kept = 0;
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+                kept = field.length();
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(trimUnquoted(field, kept));
+                field.setLength(0);
+                kept = 0;
+            } else if (field.isEmpty() && Character.isWhitespace(c)) {
+                continue;
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(trimUnquoted(field, kept));
+        return fields;
+    }
+
+    private static String trimUnquoted(StringBuilder field, int kept) {
+        int end = field.length();
+        while (end > kept && Character.isWhitespace(field.charAt(end - 1))) {
+            end--;
+        }
+        return field.substring(0, end);
+    }
+}
@@ -0,0 +1,80 @@
+package com.vibevault.userservice.services.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over hex SHA-256 digests (as produced by {@link TokenDigest}).
+ * The digest is already uniformly distributed, so its first two 64-bit words seed the
+ * double hashing directly instead of hashing the key again.
+ */
+public final class DigestBloomFilter {
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final AtomicLong insertions = new AtomicLong();
+
+    public DigestBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expectedInsertions must be positive");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("falsePositiveRate must be between 0 and 1");
+        }
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.max(1, (bits + 63) / 64);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * Adds a digest. Returns false if every bit was already set, i.e. the digest was (or
+     * looked) already present; only puts that change the filter count as insertions.
+     */
+    public boolean put(String hexDigest) {
+        long h1 = word(hexDigest, 0);
+        long h2 = word(hexDigest, 16);
+        boolean changed = false;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(index);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!words.compareAndSet(index, current, current | mask));
+            changed |= (current & mask) == 0;
+        }
+        if (changed) {
+            insertions.incrementAndGet();
+        }
+        return changed;
+    }
+
+    public boolean mightContain(String hexDigest) {
+        long h1 = word(hexDigest, 0);
+        long h2 = word(hexDigest, 16);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long insertions() {
+        return insertions.get();
+    }
+
+    private static long word(String hexDigest, int offset) {
+        if (hexDigest == null || hexDigest.length() < offset + 16) {
+            throw new IllegalArgumentException("Expected a hex SHA-256 digest");
+        }
+        return Long.parseUnsignedLong(hexDigest, offset, offset + 16, 16);
+    }
+}
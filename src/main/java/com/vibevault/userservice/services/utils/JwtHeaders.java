@@ -0,0 +1,36 @@
+package com.vibevault.userservice.services.utils;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+public class JwtHeaders {
+    private static final JsonMapper JSON_MAPPER = JsonMapper.builder().build();
+
+    /**
+     * Reads the kid from the token's protected header WITHOUT verifying anything. Only
+     * use it to decide which key to fetch; the signature check still decides validity.
+     */
+    public static Optional<UUID> keyId(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0) {
+            return Optional.empty();
+        }
+        try {
+            byte[] header = Base64.getUrlDecoder().decode(token.substring(0, dot));
+            JsonNode kid = JSON_MAPPER.readTree(header).get("kid");
+            if (kid == null || !kid.isString()) {
+                return Optional.empty();
+            }
+            return Optional.of(UUID.fromString(kid.asString()));
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+}
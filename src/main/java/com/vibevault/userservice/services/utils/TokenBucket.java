@@ -0,0 +1,47 @@
+package com.vibevault.userservice.services.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket. The state is a single "theoretical arrival time" (the GCRA form
+ * of a token bucket), so taking a token is one compare-and-set on one long and idle
+ * buckets refill implicitly with time.
+ */
+public final class TokenBucket {
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * @param capacity       tokens available in a burst
+     * @param refillNanos    time for an empty bucket to refill completely
+     * @param nowNanos       current time on the clock later passed to {@link #tryConsume}
+     */
+    public TokenBucket(long capacity, long refillNanos, long nowNanos) {
+        if (capacity <= 0 || refillNanos <= 0) {
+            throw new IllegalArgumentException("capacity and refill period must be positive");
+        }
+        this.nanosPerToken = Math.max(1, refillNanos / capacity);
+        this.burstNanos = nanosPerToken * capacity;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token if available.
+     *
+     * @return 0 if a token was taken, otherwise the nanoseconds until one will be
+     */
+    public long tryConsume(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + nanosPerToken;
+            long wait = next - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
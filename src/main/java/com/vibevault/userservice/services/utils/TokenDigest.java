@@ -0,0 +1,23 @@
+package com.vibevault.userservice.services.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public class TokenDigest {
+    private static final HexFormat HEX = HexFormat.of();
+
+    /**
+     * Returns the lowercase hex SHA-256 of the token. Used as the key for anything that
+     * indexes raw tokens so that the tokens themselves are never held as map keys.
+     */
+    public static String sha256Hex(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HEX.formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.vibevault.userservice.services.utils;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * UUIDs in the big-endian 16-byte layout Hibernate uses for BINARY(16) columns, for
+ * statements written through JdbcTemplate.
+ */
+public final class UuidBytes {
+    private UuidBytes() {
+    }
+
+    public static byte[] of(UUID id) {
+        if (id == null) {
+            return null;
+        }
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+}
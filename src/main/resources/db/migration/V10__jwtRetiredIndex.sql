@@ -0,0 +1 @@
+CREATE INDEX idx_jwt_is_deleted_last_modified_at ON jwt (is_deleted, last_modified_at);
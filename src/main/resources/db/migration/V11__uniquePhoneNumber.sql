@@ -0,0 +1,4 @@
+ALTER TABLE users
+    ADD CONSTRAINT uc_users_phone_number UNIQUE (phone_number);
+
+DROP INDEX idx_user_phonenumber ON users;
@@ -0,0 +1,25 @@
+ALTER TABLE authorization
+    ADD state_hash CHAR(64) NULL,
+    ADD authorization_code_hash CHAR(64) NULL,
+    ADD access_token_hash CHAR(64) NULL,
+    ADD refresh_token_hash CHAR(64) NULL,
+    ADD oidc_id_token_hash CHAR(64) NULL,
+    ADD user_code_hash CHAR(64) NULL,
+    ADD device_code_hash CHAR(64) NULL;
+
+UPDATE authorization
+SET state_hash              = SHA2(state, 256),
+    authorization_code_hash = SHA2(authorization_code_value, 256),
+    access_token_hash       = SHA2(access_token_value, 256),
+    refresh_token_hash      = SHA2(refresh_token_value, 256),
+    oidc_id_token_hash      = SHA2(oidc_id_token_value, 256),
+    user_code_hash          = SHA2(user_code_value, 256),
+    device_code_hash        = SHA2(device_code_value, 256);
+
+CREATE UNIQUE INDEX uk_authorization_state_hash ON authorization (state_hash);
+CREATE UNIQUE INDEX uk_authorization_authorization_code_hash ON authorization (authorization_code_hash);
+CREATE UNIQUE INDEX uk_authorization_access_token_hash ON authorization (access_token_hash);
+CREATE UNIQUE INDEX uk_authorization_refresh_token_hash ON authorization (refresh_token_hash);
+CREATE UNIQUE INDEX uk_authorization_oidc_id_token_hash ON authorization (oidc_id_token_hash);
+CREATE UNIQUE INDEX uk_authorization_user_code_hash ON authorization (user_code_hash);
+CREATE UNIQUE INDEX uk_authorization_device_code_hash ON authorization (device_code_hash);
@@ -0,0 +1,23 @@
+CREATE TABLE token_lookup (
+    token_hash CHAR(64) NOT NULL,
+    authorization_id varchar(255) NOT NULL,
+    token_type varchar(32) NOT NULL,
+    PRIMARY KEY (token_hash)
+);
+
+CREATE INDEX idx_token_lookup_authorization_id ON token_lookup (authorization_id);
+
+INSERT INTO token_lookup (token_hash, authorization_id, token_type)
+SELECT state_hash, id, 'state' FROM authorization WHERE state_hash IS NOT NULL;
+INSERT INTO token_lookup (token_hash, authorization_id, token_type)
+SELECT authorization_code_hash, id, 'code' FROM authorization WHERE authorization_code_hash IS NOT NULL;
+INSERT INTO token_lookup (token_hash, authorization_id, token_type)
+SELECT access_token_hash, id, 'access_token' FROM authorization WHERE access_token_hash IS NOT NULL;
+INSERT INTO token_lookup (token_hash, authorization_id, token_type)
+SELECT refresh_token_hash, id, 'refresh_token' FROM authorization WHERE refresh_token_hash IS NOT NULL;
+INSERT INTO token_lookup (token_hash, authorization_id, token_type)
+SELECT oidc_id_token_hash, id, 'id_token' FROM authorization WHERE oidc_id_token_hash IS NOT NULL;
+INSERT INTO token_lookup (token_hash, authorization_id, token_type)
+SELECT user_code_hash, id, 'user_code' FROM authorization WHERE user_code_hash IS NOT NULL;
+INSERT INTO token_lookup (token_hash, authorization_id, token_type)
+SELECT device_code_hash, id, 'device_code' FROM authorization WHERE device_code_hash IS NOT NULL;
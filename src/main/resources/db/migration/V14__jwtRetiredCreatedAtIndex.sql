@@ -0,0 +1,2 @@
+DROP INDEX idx_jwt_is_deleted_last_modified_at ON jwt;
+CREATE INDEX idx_jwt_is_deleted_created_at ON jwt (is_deleted, created_at);
@@ -0,0 +1,3 @@
+-- Existing rows count from the migration, so pending ones are purged one consent timeout later
+ALTER TABLE authorization
+    ADD updated_at timestamp DEFAULT CURRENT_TIMESTAMP NOT NULL;
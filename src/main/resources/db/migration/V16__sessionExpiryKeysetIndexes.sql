@@ -0,0 +1,5 @@
+-- The sweeper pages in (expired_at, id) order; the id column lets each page be an index range read
+DROP INDEX idx_sessions_status_expired_at ON sessions;
+DROP INDEX idx_sessions_expired_at ON sessions;
+CREATE INDEX idx_sessions_status_expired_at_id ON sessions (status, expired_at, id);
+CREATE INDEX idx_sessions_expired_at_id ON sessions (expired_at, id);
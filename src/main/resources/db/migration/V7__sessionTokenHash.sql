@@ -0,0 +1,8 @@
+ALTER TABLE sessions
+    ADD token_hash CHAR(64) NULL;
+
+UPDATE sessions
+SET token_hash = SHA2(token, 256)
+WHERE token IS NOT NULL;
+
+CREATE INDEX idx_sessions_token_hash_status ON sessions (token_hash, status);
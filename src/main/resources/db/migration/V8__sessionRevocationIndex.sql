@@ -0,0 +1 @@
+CREATE INDEX idx_sessions_status_last_modified_at ON sessions (status, last_modified_at);
@@ -0,0 +1,2 @@
+CREATE INDEX idx_sessions_status_expired_at ON sessions (status, expired_at);
+CREATE INDEX idx_sessions_expired_at ON sessions (expired_at);
@@ -0,0 +1,175 @@
+package com.vibevault.userservice.benchmarks;
+
+import com.vibevault.userservice.services.utils.TokenDigest;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token lookup against an authorization-shaped table: by the raw TEXT value (what
+ * findByToken did before the digest columns), by the indexed SHA-256 column (the typed
+ * branch) and through the token_lookup primary key (the untyped branch). Each lookup
+ * picks a random existing row, so the scan pays for its average position. The plan of
+ * each lookup query is printed once the data is loaded, so one run records both the
+ * timings and whether the engine used the digest indexes.
+ *
+ * Defaults to in-memory H2, whose planner says nothing about MySQL. Results to merge on
+ * come from a scratch MySQL schema:
+ * -Dbenchmark.jdbc.url=jdbc:mysql://localhost:3306/bench -Dbenchmark.jdbc.user=... -Dbenchmark.jdbc.password=...
+ *
+ * Expected MySQL plans: lookupByValue type=ALL over every row; lookupByHash type=const
+ * on the unique digest index; lookupUntyped type=const on token_lookup's primary key,
+ * then eq_ref on authorization's.
+ *
+ * Run with:
+ * mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ *     "-Dexec.args=-cp %classpath com.vibevault.userservice.benchmarks.AuthorizationLookupBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class AuthorizationLookupBenchmark {
+    private static final String TABLE = "authorization_lookup_bench";
+    private static final String LOOKUP_TABLE = "token_lookup_bench";
+
+    @Param({"1000000"})
+    public int rows;
+
+    private Connection connection;
+    private PreparedStatement byValue;
+    private PreparedStatement byHash;
+    private PreparedStatement untyped;
+
+    @Setup
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                System.getProperty("benchmark.jdbc.url", "jdbc:h2:mem:bench;MODE=MySQL"),
+                System.getProperty("benchmark.jdbc.user", "sa"),
+                System.getProperty("benchmark.jdbc.password", ""));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + LOOKUP_TABLE);
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+            statement.execute("CREATE TABLE " + TABLE + " (id varchar(255) NOT NULL PRIMARY KEY, "
+                    + "access_token_value TEXT, access_token_hash CHAR(64))");
+            statement.execute("CREATE UNIQUE INDEX uk_" + TABLE + "_hash ON " + TABLE + " (access_token_hash)");
+            // Same shape as V13's token_lookup
+            statement.execute("CREATE TABLE " + LOOKUP_TABLE + " (token_hash CHAR(64) NOT NULL PRIMARY KEY, "
+                    + "authorization_id varchar(255) NOT NULL, token_type varchar(32) NOT NULL)");
+        }
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO " + TABLE + " (id, access_token_value, access_token_hash) VALUES (?, ?, ?)");
+             PreparedStatement insertLookup = connection.prepareStatement(
+                     "INSERT INTO " + LOOKUP_TABLE + " (token_hash, authorization_id, token_type) VALUES (?, ?, 'access_token')")) {
+            for (int i = 0; i < rows; i++) {
+                String token = token(i);
+                String hash = TokenDigest.sha256Hex(token);
+                insert.setString(1, Integer.toString(i));
+                insert.setString(2, token);
+                insert.setString(3, hash);
+                insert.addBatch();
+                insertLookup.setString(1, hash);
+                insertLookup.setString(2, Integer.toString(i));
+                insertLookup.addBatch();
+                if (i % 1000 == 999) {
+                    insert.executeBatch();
+                    insertLookup.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            insertLookup.executeBatch();
+            connection.commit();
+        }
+        connection.setAutoCommit(true);
+        String byValueSql = "SELECT id FROM " + TABLE + " WHERE access_token_value = ?";
+        String byHashSql = "SELECT id FROM " + TABLE + " WHERE access_token_hash = ?";
+        String untypedSql = "SELECT a.id FROM " + TABLE + " a JOIN " + LOOKUP_TABLE + " t"
+                + " ON t.authorization_id = a.id WHERE t.token_hash = ?";
+        String sample = token(rows / 2);
+        explain("lookupByValue", byValueSql, sample);
+        explain("lookupByHash", byHashSql, TokenDigest.sha256Hex(sample));
+        explain("lookupUntyped", untypedSql, TokenDigest.sha256Hex(sample));
+        byValue = connection.prepareStatement(byValueSql);
+        byHash = connection.prepareStatement(byHashSql);
+        untyped = connection.prepareStatement(untypedSql);
+    }
+
+    // Prints the engine's plan for one lookup, one line per plan row
+    private void explain(String name, String sql, String parameter) throws SQLException {
+        try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+            explain.setString(1, parameter);
+            try (ResultSet plan = explain.executeQuery()) {
+                ResultSetMetaData columns = plan.getMetaData();
+                while (plan.next()) {
+                    StringBuilder line = new StringBuilder("EXPLAIN ").append(name).append(':');
+                    for (int i = 1; i <= columns.getColumnCount(); i++) {
+                        line.append(' ').append(columns.getColumnLabel(i)).append('=')
+                                .append(String.valueOf(plan.getString(i)).replaceAll("\\s+", " "));
+                    }
+                    System.out.println(line);
+                }
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE " + LOOKUP_TABLE);
+            statement.execute("DROP TABLE " + TABLE);
+        }
+        connection.close();
+    }
+
+    // Opaque access tokens are ~128 chars; the payload only needs to be unique and wide
+    private static String token(int i) {
+        return "at-" + TokenDigest.sha256Hex("token-" + i) + TokenDigest.sha256Hex("salt-" + i);
+    }
+
+    @Benchmark
+    public String lookupByValue() throws SQLException {
+        byValue.setString(1, token(ThreadLocalRandom.current().nextInt(rows)));
+        return firstId(byValue);
+    }
+
+    @Benchmark
+    public String lookupByHash() throws SQLException {
+        byHash.setString(1, TokenDigest.sha256Hex(token(ThreadLocalRandom.current().nextInt(rows))));
+        return firstId(byHash);
+    }
+
+    @Benchmark
+    public String lookupUntyped() throws SQLException {
+        untyped.setString(1, TokenDigest.sha256Hex(token(ThreadLocalRandom.current().nextInt(rows))));
+        return firstId(untyped);
+    }
+
+    private static String firstId(PreparedStatement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery()) {
+            return resultSet.next() ? resultSet.getString(1) : null;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(AuthorizationLookupBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,91 @@
+package com.vibevault.userservice.benchmarks;
+
+import com.vibevault.userservice.services.Consts;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.Locator;
+import io.jsonwebtoken.security.MacAlgorithm;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.SecretKey;
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares building a JwtParser per validation against one shared parser, on a token
+ * shaped like the ones AuthServiceImpl.getJWT issues. The key locator is in-memory so
+ * only parser construction and verification are measured.
+ *
+ * Run with:
+ * mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ *     "-Dexec.args=-cp %classpath com.vibevault.userservice.benchmarks.JwtParserBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtParserBenchmark {
+    private Locator<Key> keyLocator;
+    private JwtParser sharedParser;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        MacAlgorithm alg = Jwts.SIG.HS512;
+        SecretKey key = alg.key().build();
+        String kid = UUID.randomUUID().toString();
+        keyLocator = header -> key;
+        sharedParser = Jwts.parser().keyLocator(keyLocator).build();
+        token = Jwts.builder()
+                .header().keyId(kid)
+                .and()
+                .issuer(Consts.JWT_ISSUER)
+                .issuedAt(new Date())
+                .expiration(new Date(System.currentTimeMillis() + Consts.JWT_EXPIRATION_TIME))
+                .subject(UUID.randomUUID().toString())
+                .claim("email", "bench@vibevault.test")
+                .claim("roles", List.of("CUSTOMER"))
+                .audience()
+                .add(Consts.JWT_AUDIENCE)
+                .and()
+                .id(kid)
+                .signWith(key, alg)
+                .compact();
+    }
+
+    @Benchmark
+    public Jws<Claims> parserPerRequest() {
+        return Jwts.parser().keyLocator(keyLocator).build().parseSignedClaims(token);
+    }
+
+    @Benchmark
+    public Jws<Claims> sharedParser() {
+        return sharedParser.parseSignedClaims(token);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Jws<Claims> sharedParserContended() {
+        return sharedParser.parseSignedClaims(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtParserBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
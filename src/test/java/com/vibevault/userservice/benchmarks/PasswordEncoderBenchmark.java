@@ -0,0 +1,68 @@
+package com.vibevault.userservice.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+import org.springframework.security.crypto.scrypt.SCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one password check (matches) for each algorithm BCryptConfig can be switched
+ * to, at the parameters application.properties ships with plus a few BCrypt costs.
+ * Runs single-threaded, so ops/s is the login throughput one core can sustain; divide
+ * the login SLO budget by the average time to pick a cost.
+ *
+ * Run with:
+ * mvn test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ *     "-Dexec.args=-cp %classpath com.vibevault.userservice.benchmarks.PasswordEncoderBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(1)
+public class PasswordEncoderBenchmark {
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"bcrypt-10", "bcrypt-12", "bcrypt-14", "pbkdf2-310000", "argon2-19MiB-2", "scrypt-65536"})
+    public String encoder;
+
+    private PasswordEncoder passwordEncoder;
+    private String encoded;
+
+    @Setup
+    public void setUp() {
+        passwordEncoder = switch (encoder) {
+            case "bcrypt-10" -> new BCryptPasswordEncoder(10);
+            case "bcrypt-12" -> new BCryptPasswordEncoder(12);
+            case "bcrypt-14" -> new BCryptPasswordEncoder(14);
+            case "pbkdf2-310000" -> new Pbkdf2PasswordEncoder("", 16, 310000,
+                    Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+            case "argon2-19MiB-2" -> new Argon2PasswordEncoder(16, 32, 1, 19456, 2);
+            case "scrypt-65536" -> new SCryptPasswordEncoder(65536, 8, 1, 32, 16);
+            default -> throw new IllegalArgumentException(encoder);
+        };
+        encoded = passwordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches(PASSWORD, encoded);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PasswordEncoderBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,67 @@
+package com.vibevault.userservice.configurations;
+
+import com.vibevault.userservice.security.BCryptCost;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BCryptConfigTest {
+
+    private PasswordEncoder encoder(String algorithm, int bcryptCost) {
+        return new BCryptConfig().bCryptPasswordEncoder(new SimpleMeterRegistry(), 1, 4, Duration.ofSeconds(1),
+                algorithm, new BCryptCost(new SimpleMeterRegistry(), false, bcryptCost, Duration.ofMillis(250), 4, 16), 1000, 1024, 1, 1024);
+    }
+
+    @Test
+    void newHashesCarryAlgorithmPrefix() {
+        PasswordEncoder encoder = encoder("bcrypt", 4);
+
+        String encoded = encoder.encode("Passw0rd!");
+
+        assertTrue(encoded.startsWith("{bcrypt}"));
+        assertTrue(encoder.matches("Passw0rd!", encoded));
+        assertFalse(encoder.upgradeEncoding(encoded));
+    }
+
+    @Test
+    void legacyUnprefixedBcryptHashStillMatchesAndIsUpgraded() {
+        PasswordEncoder encoder = encoder("bcrypt", 4);
+        String legacy = new BCryptPasswordEncoder(4).encode("Passw0rd!");
+
+        assertTrue(encoder.matches("Passw0rd!", legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+    }
+
+    @Test
+    void weakerCostAndOtherAlgorithmsAreUpgraded() {
+        String weaker = encoder("bcrypt", 4).encode("Passw0rd!");
+        String pbkdf2 = encoder("pbkdf2", 4).encode("Passw0rd!");
+        PasswordEncoder current = encoder("bcrypt", 5);
+
+        assertTrue(current.matches("Passw0rd!", weaker));
+        assertTrue(current.upgradeEncoding(weaker));
+        assertTrue(current.matches("Passw0rd!", pbkdf2));
+        assertTrue(current.upgradeEncoding(pbkdf2));
+    }
+
+    @Test
+    void argon2AndScryptHashesRoundTrip() {
+        for (String algorithm : new String[]{"argon2", "scrypt"}) {
+            PasswordEncoder encoder = encoder(algorithm, 4);
+            String encoded = encoder.encode("Passw0rd!");
+
+            assertTrue(encoded.startsWith("{" + algorithm + "}"));
+            assertTrue(encoder.matches("Passw0rd!", encoded));
+        }
+    }
+
+    @Test
+    void unknownAlgorithmFailsStartup() {
+        assertThrows(IllegalStateException.class, () -> encoder("md5", 4));
+    }
+}
@@ -1,15 +1,21 @@
 package com.vibevault.userservice.controllers;
 
 import tools.jackson.databind.json.JsonMapper;
+import com.vibevault.userservice.dtos.auth.BatchValidateRequestDto;
 import com.vibevault.userservice.dtos.auth.LoginRequestDto;
 import com.vibevault.userservice.dtos.auth.LoginResponseDto;
 import com.vibevault.userservice.dtos.auth.LogoutRequestDto;
 import com.vibevault.userservice.dtos.auth.SignupRequestDto;
 
+import com.vibevault.userservice.exceptions.auth.BatchTooLargeException;
+import com.vibevault.userservice.exceptions.auth.InvalidTokenException;
+import com.vibevault.userservice.exceptions.auth.LoginRateLimitedException;
+import com.vibevault.userservice.exceptions.auth.PasswordHashingUnavailableException;
 import com.vibevault.userservice.models.Role;
 import com.vibevault.userservice.models.User;
 import com.vibevault.userservice.models.UserRole;
 import com.vibevault.userservice.services.AuthService;
+import com.vibevault.userservice.services.TokenValidationResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -183,4 +189,79 @@ public class AuthControllerMVCTest {
                         .content(jsonMapper.writeValueAsString(logoutRequest)))
                 .andExpect(status().isNoContent());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testValidateTokensBatch() throws Exception {
+        BatchValidateRequestDto batchRequest = new BatchValidateRequestDto(List.of("good-token", "bad-token"));
+        when(authService.validateTokens(eq(List.of("good-token", "bad-token")))).thenReturn(List.of(
+                TokenValidationResult.valid(List.of(userRole)),
+                TokenValidationResult.invalid(new InvalidTokenException("Invalid or expired session"))));
+
+        mockMvc.perform(post("/auth/validate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonMapper.writeValueAsString(batchRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].index").value(0))
+                .andExpect(jsonPath("$.results[0].valid").value(true))
+                .andExpect(jsonPath("$.results[0].user.email").value("john.doe@example.com"))
+                .andExpect(jsonPath("$.results[0].user.roles[0]").value("USER"))
+                .andExpect(jsonPath("$.results[1].index").value(1))
+                .andExpect(jsonPath("$.results[1].valid").value(false))
+                .andExpect(jsonPath("$.results[1].error").value("Invalid or expired session"));
+    }
+
+    @Test
+    void testValidateTokensBatchHidesInternalErrors() throws Exception {
+        BatchValidateRequestDto batchRequest = new BatchValidateRequestDto(List.of("some-token"));
+        when(authService.validateTokens(eq(List.of("some-token")))).thenReturn(List.of(
+                TokenValidationResult.invalid(new IllegalStateException("Connection refused: db-primary:3306"))));
+
+        mockMvc.perform(post("/auth/validate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonMapper.writeValueAsString(batchRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].valid").value(false))
+                .andExpect(jsonPath("$.results[0].error").value("Validation unavailable"));
+    }
+
+    @Test
+    void testValidateTokensBatchTooLarge() throws Exception {
+        BatchValidateRequestDto batchRequest = new BatchValidateRequestDto(List.of("a", "b"));
+        when(authService.validateTokens(anyList())).thenThrow(new BatchTooLargeException("At most 1 tokens can be validated per request"));
+
+        mockMvc.perform(post("/auth/validate/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonMapper.writeValueAsString(batchRequest)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testLoginReturns503WhenHashingIsSaturated() throws Exception {
+        LoginRequestDto loginRequest = new LoginRequestDto();
+        loginRequest.setEmail("john.doe@example.com");
+        loginRequest.setPassword("password");
+        when(authService.login(eq("john.doe@example.com"), eq("password")))
+                .thenThrow(new PasswordHashingUnavailableException("Too many concurrent sign-ins, please retry", 2));
+
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "2"));
+    }
+
+    @Test
+    void testLoginReturns429WhenThrottled() throws Exception {
+        LoginRequestDto loginRequest = new LoginRequestDto();
+        loginRequest.setEmail("john.doe@example.com");
+        loginRequest.setPassword("password");
+        when(authService.login(eq("john.doe@example.com"), eq("password")))
+                .thenThrow(new LoginRateLimitedException("Too many login attempts, please retry later", 12));
+
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(jsonMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "12"));
+    }
+}
@@ -0,0 +1,104 @@
+package com.vibevault.userservice.controllers;
+
+import com.vibevault.userservice.models.Role;
+import com.vibevault.userservice.models.User;
+import com.vibevault.userservice.models.UserRole;
+import com.vibevault.userservice.services.AuthService;
+import com.vibevault.userservice.services.UserImportError;
+import com.vibevault.userservice.services.UserImportFormat;
+import com.vibevault.userservice.services.UserImportService;
+import com.vibevault.userservice.services.UserImportSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.boot.webmvc.test.autoconfigure.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(UserImportController.class)
+@AutoConfigureMockMvc(addFilters = false)
+public class UserImportControllerMVCTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private UserImportService userImportService;
+
+    @MockitoBean
+    private AuthService authService;
+
+    private static final String AUTH_TOKEN = "Bearer testtoken";
+
+    private UserRole userRole(String roleName, UUID userId) {
+        Role role = new Role();
+        role.setName(roleName);
+        User user = new User();
+        user.setId(userId);
+        UserRole userRole = new UserRole();
+        userRole.setRole(role);
+        userRole.setUser(user);
+        return userRole;
+    }
+
+    @Test
+    void importUsers_shouldReturnForbidden_whenNotAdmin() throws Exception {
+        when(authService.validateToken(AUTH_TOKEN)).thenReturn(List.of(userRole("CUSTOMER", UUID.randomUUID())));
+
+        mockMvc.perform(post("/auth/admin/users/import")
+                        .header("Authorization", AUTH_TOKEN)
+                        .contentType("text/csv")
+                        .content("email,password,name,phone,role\n"))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(userImportService);
+    }
+
+    @Test
+    void importUsers_shouldReturnUnauthorized_whenTokenInvalid() throws Exception {
+        when(authService.validateToken(AUTH_TOKEN)).thenReturn(List.of());
+
+        mockMvc.perform(post("/auth/admin/users/import")
+                        .header("Authorization", AUTH_TOKEN)
+                        .contentType("application/x-ndjson")
+                        .content("{}\n"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importUsers_shouldStreamErrorsThenSummary_whenAdmin() throws Exception {
+        UUID adminId = UUID.randomUUID();
+        when(authService.validateToken(AUTH_TOKEN)).thenReturn(List.of(userRole("ADMIN", adminId)));
+        when(userImportService.importUsers(any(), eq(UserImportFormat.CSV), eq(adminId), any()))
+                .thenAnswer(invocation -> {
+                    Consumer<UserImportError> errors = invocation.getArgument(3);
+                    errors.accept(new UserImportError(3, "b@x.com", "Email already exists"));
+                    return new UserImportSummary(2, 1, 1);
+                });
+
+        MvcResult result = mockMvc.perform(post("/auth/admin/users/import")
+                        .header("Authorization", AUTH_TOKEN)
+                        .contentType("text/csv")
+                        .content("email,password,name,phone,role\na@x.com,pw,Ann,111,CUSTOMER\nb@x.com,pw,Bo,222,CUSTOMER\n"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andExpect(content().string(
+                        "{\"line\":3,\"email\":\"b@x.com\",\"error\":\"Email already exists\"}\n"
+                                + "{\"rows\":2,\"created\":1,\"failed\":1}\n"));
+    }
+}
@@ -0,0 +1,57 @@
+package com.vibevault.userservice.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BCryptCostTest {
+
+    private static long millis(long ms) {
+        return TimeUnit.MILLISECONDS.toNanos(ms);
+    }
+
+    @Test
+    void picksHighestCostWithinTarget() {
+        // 10 ms at cost 10 -> 20, 40, 80, 160 ms at 14; 320 ms at 15 would exceed 250 ms
+        BCryptCost cost = new BCryptCost(new SimpleMeterRegistry(), true, 14, Duration.ofMillis(250), 10, 16,
+                c -> millis(10));
+
+        assertEquals(14, cost.get());
+    }
+
+    @Test
+    void usesFastestSampleAsBaseline() {
+        long[] samples = {millis(80), millis(10), millis(40)};
+        int[] call = {0};
+        BCryptCost cost = new BCryptCost(new SimpleMeterRegistry(), true, 14, Duration.ofMillis(250), 10, 16,
+                c -> samples[call[0]++]);
+
+        assertEquals(14, cost.get());
+        assertEquals(3, call[0]);
+    }
+
+    @Test
+    void staysWithinBounds() {
+        BCryptCost slowCpu = new BCryptCost(new SimpleMeterRegistry(), true, 14, Duration.ofMillis(250), 10, 16,
+                c -> millis(900));
+        BCryptCost fastCpu = new BCryptCost(new SimpleMeterRegistry(), true, 14, Duration.ofMillis(250), 10, 16,
+                c -> 1000);
+
+        assertEquals(10, slowCpu.get());
+        assertEquals(16, fastCpu.get());
+    }
+
+    @Test
+    void configuredCostSkipsCalibrationAndIsPublished() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        BCryptCost cost = new BCryptCost(registry, false, 12, Duration.ofMillis(250), 10, 16,
+                c -> { throw new AssertionError("should not time the encoder"); });
+
+        assertEquals(12, cost.get());
+        assertEquals(12.0, registry.get("auth.password.hash.bcrypt.cost").gauge().value());
+    }
+}
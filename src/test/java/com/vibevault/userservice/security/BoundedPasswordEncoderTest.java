@@ -0,0 +1,80 @@
+package com.vibevault.userservice.security;
+
+import com.vibevault.userservice.exceptions.auth.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedPasswordEncoderTest {
+
+    @Test
+    void delegatesHashingToPool() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new PlainEncoder(), 1, 1, Duration.ofSeconds(1), registry)) {
+            String encoded = encoder.encode("secret");
+
+            assertEquals("plain:secret", encoded);
+            assertTrue(encoder.matches("secret", encoded));
+            assertFalse(encoder.matches("other", encoded));
+            assertEquals(1, registry.get("auth.password.hash.latency").tag("operation", "encode").timer().count());
+            assertEquals(2, registry.get("auth.password.hash.latency").tag("operation", "matches").timer().count());
+        }
+    }
+
+    @Test
+    void failsFastWhenQueueIsFull() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CountDownLatch hashing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder slow = new PlainEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                hashing.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(slow, 1, 1, Duration.ofSeconds(3), registry)) {
+            // One call occupies the only hashing thread, the next fills the queue
+            Future<String> running = callers.submit(() -> encoder.encode("first"));
+            assertTrue(hashing.await(5, TimeUnit.SECONDS));
+            Future<String> queued = callers.submit(() -> encoder.encode("second"));
+            while (registry.get("auth.password.hash.queue.depth").gauge().value() < 1) {
+                Thread.sleep(10);
+            }
+
+            PasswordHashingUnavailableException ex = assertThrows(PasswordHashingUnavailableException.class,
+                    () -> encoder.encode("third"));
+            assertEquals(3, ex.getRetryAfterSeconds());
+            assertEquals(1, registry.get("auth.password.hash.rejected").counter().count());
+
+            release.countDown();
+            assertEquals("plain:first", running.get(5, TimeUnit.SECONDS));
+            assertEquals("plain:second", queued.get(5, TimeUnit.SECONDS));
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    private static class PlainEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return "plain:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
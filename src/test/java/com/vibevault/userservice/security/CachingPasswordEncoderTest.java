@@ -0,0 +1,76 @@
+package com.vibevault.userservice.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingPasswordEncoderTest {
+
+    @Mock
+    private PasswordEncoder delegate;
+
+    private CachingPasswordEncoder encoder;
+
+    @BeforeEach
+    void setUp() {
+        encoder = new CachingPasswordEncoder(delegate, Duration.ofMinutes(5), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void successfulMatchIsVerifiedOnce() {
+        when(delegate.matches("secret", "{bcrypt}hash-1")).thenReturn(true);
+
+        assertTrue(encoder.matches("secret", "{bcrypt}hash-1"));
+        assertTrue(encoder.matches("secret", "{bcrypt}hash-1"));
+
+        verify(delegate, times(1)).matches("secret", "{bcrypt}hash-1");
+    }
+
+    @Test
+    void failedMatchIsNotCached() {
+        when(delegate.matches("wrong", "{bcrypt}hash-1")).thenReturn(false);
+
+        assertFalse(encoder.matches("wrong", "{bcrypt}hash-1"));
+        assertFalse(encoder.matches("wrong", "{bcrypt}hash-1"));
+
+        verify(delegate, times(2)).matches("wrong", "{bcrypt}hash-1");
+    }
+
+    @Test
+    void rotatedSecretIsVerifiedAgainstTheNewHash() {
+        when(delegate.matches("secret", "{bcrypt}hash-1")).thenReturn(true);
+        when(delegate.matches("secret", "{bcrypt}hash-2")).thenReturn(false);
+
+        assertTrue(encoder.matches("secret", "{bcrypt}hash-1"));
+        assertFalse(encoder.matches("secret", "{bcrypt}hash-2"));
+    }
+
+    @Test
+    void differentSecretForTheSameHashGoesToTheDelegate() {
+        when(delegate.matches("secret", "{bcrypt}hash-1")).thenReturn(true);
+        when(delegate.matches("secret2", "{bcrypt}hash-1")).thenReturn(false);
+
+        assertTrue(encoder.matches("secret", "{bcrypt}hash-1"));
+        assertFalse(encoder.matches("secret2", "{bcrypt}hash-1"));
+    }
+
+    @Test
+    void encodeAlwaysDelegates() {
+        when(delegate.encode("secret")).thenReturn("{bcrypt}hash");
+
+        assertEquals("{bcrypt}hash", encoder.encode("secret"));
+        assertEquals("{bcrypt}hash", encoder.encode("secret"));
+
+        verify(delegate, times(2)).encode("secret");
+    }
+}
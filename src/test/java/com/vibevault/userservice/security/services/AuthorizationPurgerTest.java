@@ -0,0 +1,128 @@
+package com.vibevault.userservice.security.services;
+
+import com.vibevault.userservice.security.models.Authorization;
+import com.vibevault.userservice.security.models.TokenLookup;
+import com.vibevault.userservice.security.repositories.AuthorizationRepository;
+import com.vibevault.userservice.security.repositories.TokenLookupRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the purge queries against a real schema, with a chunk size small enough to
+ * exercise the keyset paging.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        // AUTHORIZATION is a keyword in H2 but not in MySQL
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true",
+        "auth.authorization.purge.chunk-size=2",
+        "auth.authorization.purge.grace=1h",
+        "auth.authorization.purge.consent-timeout=1h"
+})
+@Import({AuthorizationPurger.class, AuthorizationPurgerTest.TestBeans.class})
+class AuthorizationPurgerTest {
+
+    @TestConfiguration
+    static class TestBeans {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private AuthorizationRepository authorizationRepository;
+    @Autowired
+    private TokenLookupRepository tokenLookupRepository;
+    @Autowired
+    private AuthorizationPurger authorizationPurger;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private static Instant ago(Duration duration) {
+        return Instant.now().minus(duration);
+    }
+
+    private String authorization(String id, Instant accessExpiresAt, Instant refreshExpiresAt) {
+        return authorization(id, accessExpiresAt, refreshExpiresAt, Instant.now());
+    }
+
+    private String authorization(String id, Instant accessExpiresAt, Instant refreshExpiresAt, Instant updatedAt) {
+        Authorization authorization = new Authorization();
+        authorization.setId(id);
+        authorization.setRegisteredClientId("client-1");
+        authorization.setPrincipalName("alice@vibevault.test");
+        authorization.setAuthorizationGrantType("authorization_code");
+        authorization.setUpdatedAt(updatedAt);
+        if (accessExpiresAt != null) {
+            authorization.setAccessTokenValue("access-" + id);
+            authorization.setAccessTokenExpiresAt(accessExpiresAt);
+        }
+        if (refreshExpiresAt != null) {
+            authorization.setRefreshTokenValue("refresh-" + id);
+            authorization.setRefreshTokenExpiresAt(refreshExpiresAt);
+        }
+        entityManager.persist(authorization);
+        entityManager.persist(new TokenLookup("hash-" + id, id, "access_token"));
+        return id;
+    }
+
+    @Test
+    void purgeDeletesAuthorizationsWhoseTokensAllExpiredBeforeTheGrace() {
+        authorization("a-expired", ago(Duration.ofHours(3)), ago(Duration.ofHours(2)));
+        authorization("b-expired", ago(Duration.ofHours(5)), null);
+        authorization("c-expired", ago(Duration.ofDays(2)), ago(Duration.ofDays(1)));
+        authorization("d-refresh-live", ago(Duration.ofHours(3)), ago(Duration.ofHours(-12)));
+        authorization("e-within-grace", ago(Duration.ofMinutes(30)), null);
+        authorization("f-pending", null, null);
+        authorization("g-abandoned", null, null, ago(Duration.ofHours(2)));
+        authorization("h-expired-recently-saved", ago(Duration.ofHours(3)), null, ago(Duration.ofMinutes(1)));
+        entityManager.flush();
+        entityManager.clear();
+
+        authorizationPurger.purge();
+        entityManager.clear();
+
+        assertTrue(authorizationRepository.findById("a-expired").isEmpty());
+        assertTrue(authorizationRepository.findById("b-expired").isEmpty());
+        assertTrue(authorizationRepository.findById("c-expired").isEmpty());
+        assertTrue(authorizationRepository.findById("d-refresh-live").isPresent());
+        assertTrue(authorizationRepository.findById("e-within-grace").isPresent());
+        assertTrue(authorizationRepository.findById("f-pending").isPresent());
+        assertTrue(authorizationRepository.findById("g-abandoned").isEmpty());
+        assertTrue(authorizationRepository.findById("h-expired-recently-saved").isEmpty());
+        assertTrue(tokenLookupRepository.findAllByAuthorizationId("a-expired").isEmpty());
+        assertTrue(tokenLookupRepository.findAllByAuthorizationId("g-abandoned").isEmpty());
+        assertEquals(1, tokenLookupRepository.findAllByAuthorizationId("d-refresh-live").size());
+        assertEquals(5, meterRegistry.get("auth.authorization.purged").counter().count());
+        assertEquals(3, meterRegistry.get("auth.authorization.live").gauge().value());
+    }
+
+    @Test
+    void purgeWithNothingExpiredReportsTheLiveCount() {
+        authorization("a-live", ago(Duration.ofMinutes(-5)), ago(Duration.ofHours(-12)));
+        entityManager.flush();
+        entityManager.clear();
+
+        authorizationPurger.purge();
+
+        assertTrue(authorizationRepository.findById("a-live").isPresent());
+        assertEquals(0, meterRegistry.get("auth.authorization.purged").counter().count());
+        assertEquals(1, meterRegistry.get("auth.authorization.live").gauge().value());
+    }
+}
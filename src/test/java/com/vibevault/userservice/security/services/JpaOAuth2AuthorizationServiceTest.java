@@ -0,0 +1,196 @@
+package com.vibevault.userservice.security.services;
+
+import com.vibevault.userservice.security.models.Authorization;
+import com.vibevault.userservice.security.models.TokenLookup;
+import com.vibevault.userservice.security.repositories.AuthorizationRepository;
+import com.vibevault.userservice.security.repositories.TokenLookupRepository;
+import com.vibevault.userservice.services.utils.TokenDigest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2RefreshToken;
+import org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames;
+import org.springframework.security.oauth2.server.authorization.OAuth2Authorization;
+import org.springframework.security.oauth2.server.authorization.OAuth2AuthorizationCode;
+import org.springframework.security.oauth2.server.authorization.OAuth2TokenType;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClientRepository;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Saves authorizations through the service against a real schema and finds them again by
+ * each token type, so the digest columns written on save are the ones read on lookup.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        // AUTHORIZATION is a keyword in H2 but not in MySQL
+        "spring.jpa.properties.hibernate.auto_quote_keyword=true"
+})
+@Import(JpaOAuth2AuthorizationService.class)
+class JpaOAuth2AuthorizationServiceTest {
+
+    @Autowired
+    private JpaOAuth2AuthorizationService authorizationService;
+    @Autowired
+    private AuthorizationRepository authorizationRepository;
+    @Autowired
+    private TokenLookupRepository tokenLookupRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+    @MockitoBean
+    private RegisteredClientRepository registeredClientRepository;
+
+    private RegisteredClient registeredClient;
+
+    @BeforeEach
+    void setUp() {
+        registeredClient = RegisteredClient.withId("client-1")
+                .clientId("vibevault")
+                .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_BASIC)
+                .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+                .redirectUri("http://localhost/callback")
+                .scope("read")
+                .build();
+        when(registeredClientRepository.findById("client-1")).thenReturn(registeredClient);
+    }
+
+    private OAuth2Authorization authorization(String id, String suffix) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        return OAuth2Authorization.withRegisteredClient(registeredClient)
+                .id(id)
+                .principalName("alice@vibevault.test")
+                .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+                .authorizedScopes(Set.of("read"))
+                .attribute(OAuth2ParameterNames.STATE, "state-" + suffix)
+                .token(new OAuth2AuthorizationCode("code-" + suffix, now, now.plusSeconds(300)))
+                .token(new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "access-" + suffix,
+                        now, now.plusSeconds(300), Set.of("read")))
+                .refreshToken(new OAuth2RefreshToken("refresh-" + suffix, now, now.plusSeconds(3600)))
+                .build();
+    }
+
+    @Test
+    void saveStoresADigestOfEveryTokenValue() {
+        authorizationService.save(authorization("auth-1", "1"));
+        entityManager.flush();
+        entityManager.clear();
+
+        Authorization stored = authorizationRepository.findById("auth-1").orElseThrow();
+        assertEquals(TokenDigest.sha256Hex("state-1"), stored.getStateHash());
+        assertEquals(TokenDigest.sha256Hex("code-1"), stored.getAuthorizationCodeHash());
+        assertEquals(TokenDigest.sha256Hex("access-1"), stored.getAccessTokenHash());
+        assertEquals(TokenDigest.sha256Hex("refresh-1"), stored.getRefreshTokenHash());
+        assertNull(stored.getOidcIdTokenHash());
+        assertNull(stored.getUserCodeHash());
+        assertNull(stored.getDeviceCodeHash());
+        assertNotNull(stored.getUpdatedAt());
+    }
+
+    @Test
+    void findByTokenLooksUpEachTypeByDigest() {
+        authorizationService.save(authorization("auth-1", "1"));
+        authorizationService.save(authorization("auth-2", "2"));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals("auth-2", authorizationService.findByToken("state-2", new OAuth2TokenType(OAuth2ParameterNames.STATE)).getId());
+        assertEquals("auth-2", authorizationService.findByToken("code-2", new OAuth2TokenType(OAuth2ParameterNames.CODE)).getId());
+        assertEquals("auth-1", authorizationService.findByToken("access-1", OAuth2TokenType.ACCESS_TOKEN).getId());
+        assertEquals("auth-1", authorizationService.findByToken("refresh-1", OAuth2TokenType.REFRESH_TOKEN).getId());
+        assertEquals("auth-2", authorizationService.findByToken("refresh-2", null).getId());
+
+        OAuth2Authorization found = authorizationService.findByToken("access-2", OAuth2TokenType.ACCESS_TOKEN);
+        assertEquals("access-2", found.getAccessToken().getToken().getTokenValue());
+    }
+
+    @Test
+    void findByTokenDoesNotMatchAcrossTokenTypes() {
+        authorizationService.save(authorization("auth-1", "1"));
+        entityManager.flush();
+
+        assertNull(authorizationService.findByToken("access-1", OAuth2TokenType.REFRESH_TOKEN));
+        assertNull(authorizationService.findByToken("unknown", null));
+    }
+
+    @Test
+    void saveReplacesDigestsWhenTokensAreRotated() {
+        authorizationService.save(authorization("auth-1", "1"));
+        entityManager.flush();
+        authorizationService.save(authorization("auth-1", "rotated"));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertNull(authorizationService.findByToken("refresh-1", OAuth2TokenType.REFRESH_TOKEN));
+        assertEquals("auth-1", authorizationService.findByToken("refresh-rotated", OAuth2TokenType.REFRESH_TOKEN).getId());
+    }
+
+    @Test
+    void saveKeepsOneLookupRowPerTokenValue() {
+        authorizationService.save(authorization("auth-1", "1"));
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(Set.of(TokenDigest.sha256Hex("state-1"), TokenDigest.sha256Hex("code-1"),
+                        TokenDigest.sha256Hex("access-1"), TokenDigest.sha256Hex("refresh-1")),
+                tokenHashes("auth-1"));
+        assertEquals(OAuth2ParameterNames.REFRESH_TOKEN,
+                tokenLookupRepository.findById(TokenDigest.sha256Hex("refresh-1")).orElseThrow().getTokenType());
+    }
+
+    @Test
+    void saveReplacesOnlyRotatedLookupRows() {
+        authorizationService.save(authorization("auth-1", "1"));
+        entityManager.flush();
+        entityManager.clear();
+
+        OAuth2Authorization refreshed = OAuth2Authorization.from(authorizationService.findById("auth-1"))
+                .token(new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "access-2",
+                        Instant.now(), Instant.now().plusSeconds(300), Set.of("read")))
+                .build();
+        authorizationService.save(refreshed);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(Set.of(TokenDigest.sha256Hex("state-1"), TokenDigest.sha256Hex("code-1"),
+                        TokenDigest.sha256Hex("access-2"), TokenDigest.sha256Hex("refresh-1")),
+                tokenHashes("auth-1"));
+        assertNull(authorizationService.findByToken("access-1", null));
+        assertEquals("auth-1", authorizationService.findByToken("access-2", null).getId());
+    }
+
+    @Test
+    void removeDeletesLookupRows() {
+        OAuth2Authorization authorization = authorization("auth-1", "1");
+        authorizationService.save(authorization);
+        entityManager.flush();
+
+        authorizationService.remove(authorization);
+        entityManager.flush();
+        entityManager.clear();
+
+        assertTrue(tokenLookupRepository.findAllByAuthorizationId("auth-1").isEmpty());
+        assertNull(authorizationService.findByToken("refresh-1", null));
+        assertTrue(authorizationRepository.findById("auth-1").isEmpty());
+    }
+
+    private Set<String> tokenHashes(String authorizationId) {
+        return tokenLookupRepository.findAllByAuthorizationId(authorizationId).stream()
+                .map(TokenLookup::getTokenHash)
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,117 @@
+package com.vibevault.userservice.security.services;
+
+import com.vibevault.userservice.security.models.Client;
+import com.vibevault.userservice.security.repositories.ClientRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.ClientAuthenticationMethod;
+import org.springframework.security.oauth2.server.authorization.client.RegisteredClient;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JpaRegisteredClientRepositoryTest {
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    private JpaRegisteredClientRepository registeredClientRepository;
+
+    @BeforeEach
+    void setUp() {
+        registeredClientRepository = new JpaRegisteredClientRepository(clientRepository, new SimpleMeterRegistry());
+    }
+
+    private static RegisteredClient registeredClient(String id, String clientId) {
+        return RegisteredClient.withId(id)
+                .clientId(clientId)
+                .clientSecret("{noop}secret")
+                .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_BASIC)
+                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+                .scope("read")
+                .build();
+    }
+
+    // Round-trips through save so the entity carries the same serialized settings as the table
+    private Client entity(String id, String clientId) {
+        ClientRepository target = mock(ClientRepository.class);
+        JpaRegisteredClientRepository writer = new JpaRegisteredClientRepository(target, new SimpleMeterRegistry());
+        writer.save(registeredClient(id, clientId));
+        ArgumentCaptor<Client> captor = ArgumentCaptor.forClass(Client.class);
+        verify(target).save(captor.capture());
+        return captor.getValue();
+    }
+
+    @Test
+    void reloadServesClientsByIdAndClientIdWithoutQueries() {
+        List<Client> clients = List.of(entity("id-1", "web"), entity("id-2", "mobile"));
+        when(clientRepository.findAll()).thenReturn(clients);
+
+        registeredClientRepository.reload();
+
+        assertEquals("web", registeredClientRepository.findById("id-1").getClientId());
+        assertEquals("id-2", registeredClientRepository.findByClientId("mobile").getId());
+        assertSame(registeredClientRepository.findById("id-1"), registeredClientRepository.findByClientId("web"));
+        verify(clientRepository, never()).findById(any());
+        verify(clientRepository, never()).findByClientId(any());
+    }
+
+    @Test
+    void missReadsThroughAndCachesTheClient() {
+        Client client = entity("id-1", "web");
+        when(clientRepository.findById("id-1")).thenReturn(Optional.of(client));
+
+        RegisteredClient first = registeredClientRepository.findById("id-1");
+        RegisteredClient second = registeredClientRepository.findById("id-1");
+
+        assertSame(first, second);
+        assertSame(first, registeredClientRepository.findByClientId("web"));
+        verify(clientRepository, times(1)).findById("id-1");
+    }
+
+    @Test
+    void unknownClientsAreNotCached() {
+        when(clientRepository.findByClientId("ghost")).thenReturn(Optional.empty());
+
+        assertNull(registeredClientRepository.findByClientId("ghost"));
+        assertNull(registeredClientRepository.findByClientId("ghost"));
+
+        verify(clientRepository, times(2)).findByClientId("ghost");
+    }
+
+    @Test
+    void saveReplacesTheCachedClientAndDropsItsOldClientId() {
+        List<Client> clients = List.of(entity("id-1", "web"));
+        when(clientRepository.findAll()).thenReturn(clients);
+        registeredClientRepository.reload();
+
+        registeredClientRepository.save(registeredClient("id-1", "web-v2"));
+
+        assertEquals("web-v2", registeredClientRepository.findById("id-1").getClientId());
+        assertEquals("id-1", registeredClientRepository.findByClientId("web-v2").getId());
+        when(clientRepository.findByClientId("web")).thenReturn(Optional.empty());
+        assertNull(registeredClientRepository.findByClientId("web"));
+    }
+
+    @Test
+    void reloadDropsClientsDeletedElsewhere() {
+        List<Client> clients = List.of(entity("id-1", "web"));
+        when(clientRepository.findAll()).thenReturn(clients).thenReturn(List.of());
+        registeredClientRepository.reload();
+        registeredClientRepository.reload();
+
+        when(clientRepository.findById("id-1")).thenReturn(Optional.empty());
+        assertNull(registeredClientRepository.findById("id-1"));
+    }
+}
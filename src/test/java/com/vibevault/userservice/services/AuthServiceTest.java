@@ -5,8 +5,21 @@ import com.vibevault.userservice.dtos.auth.LoginResponseDto;
 import com.vibevault.userservice.exceptions.auth.*;
 import com.vibevault.userservice.models.*;
 import com.vibevault.userservice.repositories.*;
+import com.vibevault.userservice.repositories.projections.SessionValidationRow;
+import com.vibevault.userservice.repositories.projections.SigningSecret;
+import com.vibevault.userservice.repositories.projections.UserIdentity;
+import com.vibevault.userservice.services.cache.RejectedTokenCache;
+import com.vibevault.userservice.services.cache.RevocationList;
+import com.vibevault.userservice.services.cache.RoleCache;
+import com.vibevault.userservice.services.cache.UserSigningKeyCache;
+import com.vibevault.userservice.services.cache.ValidatedTokenCache;
+import com.vibevault.userservice.services.utils.JwtHeaders;
+import com.vibevault.userservice.services.utils.TokenDigest;
 import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.Jwts;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,9 +27,25 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -41,6 +70,18 @@ public class AuthServiceTest {
     @Mock
     private UserRoleRepository userRoleRepository;
 
+    @Mock
+    private RevocationList revocationList;
+    @Mock
+    private LoginRateLimiter loginRateLimiter;
+
+    private ValidatedTokenCache validatedTokenCache;
+    private RejectedTokenCache rejectedTokenCache;
+    private UserSigningKeyCache userSigningKeyCache;
+    private SigningKeyring signingKeyring;
+    private SessionWriteBehind sessionWriteBehind;
+    private RoleCache roleCache;
+
     private AuthService authService;
 
     @Spy
@@ -54,14 +95,30 @@ public class AuthServiceTest {
 
     @BeforeEach
     void setUp() {
+        validatedTokenCache = new ValidatedTokenCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+        rejectedTokenCache = new RejectedTokenCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+        userSigningKeyCache = new UserSigningKeyCache(new SimpleMeterRegistry(), 100);
+        roleCache = new RoleCache(roleRepository, new SimpleMeterRegistry(), Duration.ofMinutes(5));
+        signingKeyring = new SigningKeyring(SigningMode.PER_USER, "", Duration.ofDays(1), Duration.ofDays(1));
+        sessionWriteBehind = new SessionWriteBehind(sessionRepository, (JdbcTemplate) null, null, new SimpleMeterRegistry(),
+                SessionDurability.SYNC, Duration.ofMillis(10), 10, Duration.ofSeconds(1));
         AuthServiceImpl serviceImpl = new AuthServiceImpl(
                 userRepository,
                 passwordEncoder,
                 sessionRepository,
                 jwtRepository,
                 keyLocator,
-                roleRepository,
-                userRoleRepository
+                roleCache,
+                userRoleRepository,
+                validatedTokenCache,
+                rejectedTokenCache,
+                revocationList,
+                loginRateLimiter,
+                userSigningKeyCache,
+                signingKeyring,
+                sessionWriteBehind,
+                ValidationMode.STATEFUL,
+                10
         );
 
         authServiceSpy = spy(serviceImpl);
@@ -130,6 +187,117 @@ public class AuthServiceTest {
         verify(sessionRepository).save(any(Session.class));
     }
 
+    @Test
+    void login_storesTokenDigestOnSession() throws InvalidCredentialsException {
+        // Arrange
+        when(userRepository.findUserByEmail(testUser.getEmail())).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches(anyString(), eq(testUser.getPassword()))).thenReturn(true);
+        when(userRoleRepository.findUserRoleByUser_Id(testUser.getId())).thenReturn(Optional.of(testUserRoles));
+        when(jwtRepository.findTopByUser_IdEqualsAndDeletedEquals(testUser.getId(), false)).thenReturn(Optional.of(testJwt));
+        when(sessionRepository.save(any(Session.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        LoginResponseDto result = authService.login(testUser.getEmail(), "correctPassword");
+
+        // Assert
+        ArgumentCaptor<Session> sessionCaptor = ArgumentCaptor.forClass(Session.class);
+        verify(sessionRepository).save(sessionCaptor.capture());
+        assertEquals(TokenDigest.sha256Hex(result.getToken()), sessionCaptor.getValue().getTokenHash());
+    }
+
+    @Test
+    void login_upgradesOutdatedPasswordHash() throws InvalidCredentialsException {
+        // Arrange
+        when(userRepository.findUserByEmail(testUser.getEmail())).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches("correctPassword", "hashedPassword")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("hashedPassword")).thenReturn(true);
+        when(passwordEncoder.encode("correctPassword")).thenReturn("{argon2}upgraded");
+        when(userRoleRepository.findUserRoleByUser_Id(testUser.getId())).thenReturn(Optional.of(testUserRoles));
+        when(sessionRepository.save(any(Session.class))).thenReturn(testSession);
+        when(jwtRepository.findTopByUser_IdEqualsAndDeletedEquals(testUser.getId(), false)).thenReturn(Optional.of(testJwt));
+
+        // Act
+        authService.login(testUser.getEmail(), "correctPassword");
+
+        // Assert
+        verify(userRepository).updatePasswordHash(testUser.getId(), "hashedPassword", "{argon2}upgraded");
+        verify(userRepository, never()).save(any(User.class));
+    }
+
+    @Test
+    void login_succeedsWhenHashUpgradeWriteFails() throws InvalidCredentialsException {
+        // Arrange
+        when(userRepository.findUserByEmail(testUser.getEmail())).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches("correctPassword", "hashedPassword")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("hashedPassword")).thenReturn(true);
+        when(passwordEncoder.encode("correctPassword")).thenReturn("{argon2}upgraded");
+        when(userRepository.updatePasswordHash(testUser.getId(), "hashedPassword", "{argon2}upgraded"))
+                .thenThrow(new CannotAcquireLockException("Lock wait timeout exceeded"));
+        when(userRoleRepository.findUserRoleByUser_Id(testUser.getId())).thenReturn(Optional.of(testUserRoles));
+        when(sessionRepository.save(any(Session.class))).thenReturn(testSession);
+        when(jwtRepository.findTopByUser_IdEqualsAndDeletedEquals(testUser.getId(), false)).thenReturn(Optional.of(testJwt));
+
+        // Act
+        LoginResponseDto result = authService.login(testUser.getEmail(), "correctPassword");
+
+        // Assert
+        assertNotNull(result);
+        assertEquals("hashedPassword", testUser.getPassword());
+    }
+
+    @Test
+    void login_currentPasswordHashIsNotRewritten() throws InvalidCredentialsException {
+        // Arrange
+        when(userRepository.findUserByEmail(testUser.getEmail())).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches("correctPassword", "hashedPassword")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("hashedPassword")).thenReturn(false);
+        when(userRoleRepository.findUserRoleByUser_Id(testUser.getId())).thenReturn(Optional.of(testUserRoles));
+        when(sessionRepository.save(any(Session.class))).thenReturn(testSession);
+        when(jwtRepository.findTopByUser_IdEqualsAndDeletedEquals(testUser.getId(), false)).thenReturn(Optional.of(testJwt));
+
+        // Act
+        authService.login(testUser.getEmail(), "correctPassword");
+
+        // Assert
+        verify(passwordEncoder, never()).encode(anyString());
+        verify(userRepository, never()).updatePasswordHash(any(), any(), any());
+    }
+
+    @Test
+    void login_succeedsWhenHashUpgradeIsShed() throws InvalidCredentialsException {
+        // Arrange
+        when(userRepository.findUserByEmail(testUser.getEmail())).thenReturn(Optional.of(testUser));
+        when(passwordEncoder.matches("correctPassword", "hashedPassword")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("hashedPassword")).thenReturn(true);
+        when(passwordEncoder.encode("correctPassword"))
+                .thenThrow(new PasswordHashingUnavailableException("Too many concurrent sign-ins, please retry", 1));
+        when(userRoleRepository.findUserRoleByUser_Id(testUser.getId())).thenReturn(Optional.of(testUserRoles));
+        when(sessionRepository.save(any(Session.class))).thenReturn(testSession);
+        when(jwtRepository.findTopByUser_IdEqualsAndDeletedEquals(testUser.getId(), false)).thenReturn(Optional.of(testJwt));
+
+        // Act
+        LoginResponseDto result = authService.login(testUser.getEmail(), "correctPassword");
+
+        // Assert
+        assertNotNull(result);
+        assertEquals("hashedPassword", testUser.getPassword());
+        verify(userRepository, never()).updatePasswordHash(any(), any(), any());
+    }
+
+    @Test
+    void login_throttledBeforeUserLookupAndHash() {
+        // Arrange
+        doThrow(new LoginRateLimitedException("Too many login attempts, please retry later", 12))
+                .when(loginRateLimiter).check(eq(testUser.getEmail()), anyString());
+
+        // Act & Assert
+        LoginRateLimitedException ex = assertThrows(LoginRateLimitedException.class, () -> {
+            authService.login(testUser.getEmail(), "correctPassword");
+        });
+        assertEquals(12, ex.getRetryAfterSeconds());
+        verifyNoInteractions(userRepository, passwordEncoder);
+    }
+
     @Test
     void login_invalidCredentials_userNotFound() {
         // Arrange
@@ -166,16 +334,91 @@ public class AuthServiceTest {
         });
     }
 
+    @Test
+    void getJWT_repeatLoginsReuseCachedUserKey() {
+        // Arrange
+        when(jwtRepository.findTopByUser_IdEqualsAndDeletedEquals(testUser.getId(), false)).thenReturn(Optional.of(testJwt));
+
+        // Act
+        String first = authServiceSpy.getJWT(testUserRoles);
+        String second = authServiceSpy.getJWT(testUserRoles);
+
+        // Assert
+        assertEquals(Optional.of(testJwt.getId()), JwtHeaders.keyId(first));
+        assertEquals(Optional.of(testJwt.getId()), JwtHeaders.keyId(second));
+        verify(jwtRepository, times(1)).findTopByUser_IdEqualsAndDeletedEquals(testUser.getId(), false);
+        verify(keyLocator).register(eq(testJwt.getId()), any());
+    }
+
+    @Test
+    void getJWT_keyringModeSignsWithoutTouchingJwtTable() {
+        // Arrange
+        String masterSecret = Base64.getEncoder().encodeToString(new byte[32]);
+        SigningKeyring keyring = new SigningKeyring(SigningMode.KEYRING, masterSecret, Duration.ofDays(1), Duration.ofDays(1));
+        AuthServiceImpl keyringService = new AuthServiceImpl(userRepository, passwordEncoder, sessionRepository, jwtRepository,
+                keyLocator, roleCache, userRoleRepository, validatedTokenCache, rejectedTokenCache, revocationList,
+                loginRateLimiter, userSigningKeyCache, keyring, sessionWriteBehind, ValidationMode.STATEFUL, 10);
+
+        // Act
+        String jws = keyringService.getJWT(testUserRoles);
+
+        // Assert
+        String kid = keyring.current().kid();
+        Claims claims = Jwts.parser().verifyWith(keyring.verificationKey(kid).orElseThrow()).build()
+                .parseSignedClaims(jws).getPayload();
+        assertEquals(kid, claims.getId());
+        assertTrue(kid.startsWith(SigningKeyring.KID_PREFIX));
+        verifyNoInteractions(jwtRepository);
+        assertTrue(userSigningKeyCache.get(testUser.getId()).isEmpty());
+    }
+
+    @Test
+    void getJWT_keyDueForRotationIsReloaded() {
+        // Arrange
+        Instant createdAt = Instant.now().minus(Duration.ofDays(Consts.JWT_SECRET_EXPIRATION_TIME_IN_DAYS)).minusSeconds(1);
+        userSigningKeyCache.put(testUser.getId(), new UserSigningKeyCache.ActiveKey(UUID.randomUUID(),
+                Jwts.SIG.HS512.key().build(), createdAt));
+        when(jwtRepository.findTopByUser_IdEqualsAndDeletedEquals(testUser.getId(), false)).thenReturn(Optional.of(testJwt));
+
+        // Act
+        String jws = authServiceSpy.getJWT(testUserRoles);
+
+        // Assert
+        assertEquals(Optional.of(testJwt.getId()), JwtHeaders.keyId(jws));
+        verify(jwtRepository).findTopByUser_IdEqualsAndDeletedEquals(testUser.getId(), false);
+    }
+
+    @Test
+    void getJWT_rotationEvictsRetiredKeys() {
+        // Arrange
+        testJwt.setCreatedAt(new Date(System.currentTimeMillis() - Duration.ofDays(Consts.JWT_SECRET_EXPIRATION_TIME_IN_DAYS + 1).toMillis()));
+        when(jwtRepository.findTopByUser_IdEqualsAndDeletedEquals(testUser.getId(), false)).thenReturn(Optional.of(testJwt));
+        when(jwtRepository.findAllByUser_IdAndDeletedIs(testUser.getId(), false)).thenReturn(List.of(testJwt));
+        UUID newKid = UUID.randomUUID();
+        when(jwtRepository.save(any(JWT.class))).thenAnswer(invocation -> {
+            JWT saved = invocation.getArgument(0);
+            saved.setId(newKid);
+            return saved;
+        });
+
+        // Act
+        String jws = authServiceSpy.getJWT(testUserRoles);
+
+        // Assert
+        assertNotNull(jws);
+        assertTrue(testJwt.isDeleted());
+        verify(keyLocator).evict(List.of(testJwt.getId()));
+        verify(keyLocator).register(eq(newKid), any());
+    }
+
     // SIGNUP TESTS
 
     @Test
     void signup_successfulSignup() throws Exception {
         // Arrange
-        when(userRepository.findUserByEmail(anyString())).thenReturn(Optional.empty());
-        when(userRepository.findUserByPhoneNumber(anyString())).thenReturn(Optional.empty());
+        when(userRepository.findIdentitiesByEmailOrPhoneNumber("new@example.com", "9876543210")).thenReturn(List.of());
         when(roleRepository.findByName("USER")).thenReturn(Optional.of(testRole));
         when(userRepository.save(any(User.class))).thenReturn(testUser);
-        when(userRepository.findById(testUser.getId())).thenReturn(Optional.of(testUser));
         when(userRoleRepository.save(any(UserRole.class))).thenReturn(testUserRole);
         when(passwordEncoder.encode(anyString())).thenReturn("hashedPassword");
 
@@ -185,8 +428,77 @@ public class AuthServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(testRole, result.getRole());
-        verify(userRepository, times(2)).save(any(User.class));
-        verify(userRoleRepository).save(any(UserRole.class));
+        verify(userRepository).save(any(User.class));
+        verify(userRoleRepository).save(argThat(userRole -> userRole.getUser() == testUser && userRole.getRole() == testRole));
+        verify(userRoleRepository).flush();
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void signup_roleIsResolvedFromCache() throws Exception {
+        // Arrange
+        when(userRepository.findIdentitiesByEmailOrPhoneNumber(anyString(), anyString())).thenReturn(List.of());
+        when(roleRepository.findByName("USER")).thenReturn(Optional.of(testRole));
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(userRoleRepository.save(any(UserRole.class))).thenReturn(testUserRole);
+        when(passwordEncoder.encode(anyString())).thenReturn("hashedPassword");
+
+        // Act
+        authService.signup("first@example.com", "password123", "First User", "9876543210", "USER");
+        authService.signup("second@example.com", "password123", "Second User", "9876543211", "USER");
+
+        // Assert
+        verify(roleRepository, times(1)).findByName("USER");
+    }
+
+    @Test
+    void signup_concurrentDuplicatePhoneIsReported() {
+        // Arrange
+        when(userRepository.findIdentitiesByEmailOrPhoneNumber(anyString(), anyString())).thenReturn(List.of());
+        when(roleRepository.findByName("USER")).thenReturn(Optional.of(testRole));
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(passwordEncoder.encode(anyString())).thenReturn("hashedPassword");
+        doThrow(duplicateKey("users.uc_users_phone_number")).when(userRoleRepository).flush();
+
+        // Act & Assert
+        assertThrows(PhoneAlreadyExistsException.class, () ->
+                authService.signup("new@example.com", "password123", "New User", "9876543210", "USER"));
+    }
+
+    @Test
+    void signup_concurrentDuplicateEmailIsReported() {
+        // Arrange
+        when(userRepository.findIdentitiesByEmailOrPhoneNumber(anyString(), anyString())).thenReturn(List.of());
+        when(roleRepository.findByName("USER")).thenReturn(Optional.of(testRole));
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(passwordEncoder.encode(anyString())).thenReturn("hashedPassword");
+        // H2 names the backing index rather than the constraint
+        doThrow(duplicateKey("PUBLIC.UC_USERS_EMAIL_INDEX_4")).when(userRoleRepository).flush();
+
+        // Act & Assert
+        assertThrows(EmailAlreadyExistsException.class, () ->
+                authService.signup("new@example.com", "password123", "New User", "9876543210", "USER"));
+    }
+
+    @Test
+    void signup_otherIntegrityViolationIsRethrown() {
+        // Arrange
+        when(userRepository.findIdentitiesByEmailOrPhoneNumber(anyString(), anyString())).thenReturn(List.of());
+        when(roleRepository.findByName("USER")).thenReturn(Optional.of(testRole));
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(passwordEncoder.encode(anyString())).thenReturn("hashedPassword");
+        DataIntegrityViolationException violation = duplicateKey("fk_user_roles_role_id");
+        doThrow(violation).when(userRoleRepository).flush();
+
+        // Act & Assert
+        DataIntegrityViolationException thrown = assertThrows(DataIntegrityViolationException.class, () ->
+                authService.signup("new@example.com", "password123", "New User", "9876543210", "USER"));
+        assertSame(violation, thrown);
+    }
+
+    private static DataIntegrityViolationException duplicateKey(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", new SQLException("Duplicate entry"), constraintName));
     }
 
     @Test
@@ -215,21 +527,18 @@ public class AuthServiceTest {
 
     @Test
     void signup_emptyRole() {
-        // Arrange
-        when(userRepository.findUserByEmail(anyString())).thenReturn(Optional.empty());
-        when(userRepository.findUserByPhoneNumber(anyString())).thenReturn(Optional.empty());
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
-
         // Act & Assert
         assertThrows(EmptyRoleException.class, () -> {
             authService.signup("new@example.com", "password", "Test User", "1234567890", "");
         });
+        verifyNoInteractions(userRepository);
     }
 
     @Test
     void signup_emailAlreadyExists() {
         // Arrange
-        when(userRepository.findUserByEmail(testUser.getEmail())).thenReturn(Optional.of(testUser));
+        when(userRepository.findIdentitiesByEmailOrPhoneNumber(testUser.getEmail(), "1234567890"))
+                .thenReturn(List.of(new UserIdentity(testUser.getEmail(), "5550000000")));
 
         // Act & Assert
         assertThrows(EmailAlreadyExistsException.class, () -> {
@@ -240,8 +549,8 @@ public class AuthServiceTest {
     @Test
     void signup_phoneAlreadyExists() {
         // Arrange
-        when(userRepository.findUserByEmail(anyString())).thenReturn(Optional.empty());
-        when(userRepository.findUserByPhoneNumber(testUser.getPhoneNumber())).thenReturn(Optional.of(testUser));
+        when(userRepository.findIdentitiesByEmailOrPhoneNumber("new@example.com", testUser.getPhoneNumber()))
+                .thenReturn(List.of(new UserIdentity(testUser.getEmail(), testUser.getPhoneNumber())));
 
         // Act & Assert
         assertThrows(PhoneAlreadyExistsException.class, () -> {
@@ -252,10 +561,8 @@ public class AuthServiceTest {
     @Test
     void signup_roleNotFound() {
         // Arrange
-        when(userRepository.findUserByEmail(anyString())).thenReturn(Optional.empty());
-        when(userRepository.findUserByPhoneNumber(anyString())).thenReturn(Optional.empty());
+        when(userRepository.findIdentitiesByEmailOrPhoneNumber(anyString(), anyString())).thenReturn(List.of());
         when(roleRepository.findByName("INVALID_ROLE")).thenReturn(Optional.empty());
-        when(userRepository.save(any(User.class))).thenReturn(testUser);
 
         // Act & Assert
         assertThrows(RoleNotFoundException.class, () -> {
@@ -271,8 +578,8 @@ public class AuthServiceTest {
         String token = "valid.test.token";
 
         // Mock session
-        when(sessionRepository.findSessionsByTokenEqualsAndStatusIs(token, SessionStatus.ACTIVE))
-                .thenReturn(Optional.of(testSession));
+        when(sessionRepository.findValidationRows(eq(TokenDigest.sha256Hex(token)), eq(SessionStatus.ACTIVE), any()))
+                .thenReturn(validationRows(testSession, null));
 
         // Mock JWT parsing
         Jws<Claims> mockJws = mock(Jws.class);
@@ -289,8 +596,6 @@ public class AuthServiceTest {
 
         // Mock JWT parser
         doReturn(mockJws).when(authServiceSpy).parseAndVerifySignature(token);
-
-        when(userRoleRepository.findUserRoleByUser_Id(testUser.getId())).thenReturn(Optional.of(testUserRoles));
         when(jwtRepository.findById(testJwt.getId())).thenReturn(Optional.of(testJwt));
 
         // Act
@@ -298,15 +603,257 @@ public class AuthServiceTest {
 
         // Assert
         assertNotNull(result);
-        assertEquals(testUserRoles, result);
+        assertUserRolesMatch(testUserRoles, result);
+    }
+
+    @Test
+    void validateToken_pendingSessionIsServedBeforeItIsWritten() throws Exception {
+        // Arrange
+        String token = "valid.test.token";
+        testSession.setTokenHash(TokenDigest.sha256Hex(token));
+        SessionWriteBehind writeBehind = new SessionWriteBehind(sessionRepository, mock(JdbcTemplate.class),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), new SimpleMeterRegistry(),
+                SessionDurability.ASYNC, Duration.ofHours(1), 10, Duration.ofSeconds(1));
+        AuthServiceImpl service = spy(new AuthServiceImpl(userRepository, passwordEncoder, sessionRepository, jwtRepository,
+                keyLocator, roleCache, userRoleRepository, validatedTokenCache, rejectedTokenCache, revocationList,
+                loginRateLimiter, userSigningKeyCache, signingKeyring, writeBehind, ValidationMode.STATEFUL, 10));
+        writeBehind.persist(testSession, testUserRoles);
+
+        Jws<Claims> mockJws = mock(Jws.class);
+        Claims mockClaims = mock(Claims.class);
+        when(mockJws.getPayload()).thenReturn(mockClaims);
+        when(mockClaims.getExpiration()).thenReturn(new Date(System.currentTimeMillis() + 3600000));
+        when(mockClaims.get("email")).thenReturn(testUser.getEmail());
+        when(mockClaims.getAudience()).thenReturn(Set.of(Consts.JWT_AUDIENCE));
+        when(mockClaims.getIssuer()).thenReturn(Consts.JWT_ISSUER);
+        when(mockClaims.getSubject()).thenReturn(testUser.getId().toString());
+        when(mockClaims.getId()).thenReturn(testJwt.getId().toString());
+        doReturn(mockJws).when(service).parseAndVerifySignature(token);
+        when(jwtRepository.findById(testJwt.getId())).thenReturn(Optional.of(testJwt));
+
+        // Act
+        List<UserRole> result = service.validateToken(token);
+
+        // Assert
+        assertUserRolesMatch(testUserRoles, result);
+        verifyNoInteractions(sessionRepository);
+        writeBehind.close();
+    }
+
+    @Test
+    void validateToken_singleFetchCoversSigningKeyAndJti() throws Exception {
+        // Arrange
+        String header = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("{\"alg\":\"HS512\",\"kid\":\"" + testJwt.getId() + "\"}").getBytes(StandardCharsets.UTF_8));
+        String token = header + ".payload.signature";
+        testSession.setToken(token);
+
+        when(sessionRepository.findValidationRows(TokenDigest.sha256Hex(token), SessionStatus.ACTIVE, testJwt.getId()))
+                .thenReturn(validationRows(testSession, testJwt.getSecret()));
+
+        Jws<Claims> mockJws = mock(Jws.class);
+        Claims mockClaims = mock(Claims.class);
+        when(mockJws.getPayload()).thenReturn(mockClaims);
+        when(mockClaims.getExpiration()).thenReturn(new Date(System.currentTimeMillis() + 3600000));
+        when(mockClaims.get("email")).thenReturn(testUser.getEmail());
+        when(mockClaims.getAudience()).thenReturn(Set.of(Consts.JWT_AUDIENCE));
+        when(mockClaims.getIssuer()).thenReturn(Consts.JWT_ISSUER);
+        when(mockClaims.getSubject()).thenReturn(testUser.getId().toString());
+        when(mockClaims.getId()).thenReturn(testJwt.getId().toString());
+        doReturn(mockJws).when(authServiceSpy).parseAndVerifySignature(token);
+
+        // Act
+        List<UserRole> result = authServiceSpy.validateToken(token);
+
+        // Assert
+        assertUserRolesMatch(testUserRoles, result);
+        verify(keyLocator).prime(testJwt.getId(), testJwt.getSecret());
+        verifyNoInteractions(jwtRepository, userRoleRepository);
+    }
+
+    @Test
+    void validateToken_cachedTokenSkipsRepositories() throws Exception {
+        // Arrange
+        String token = "valid.test.token";
+
+        when(sessionRepository.findValidationRows(eq(TokenDigest.sha256Hex(token)), eq(SessionStatus.ACTIVE), any()))
+                .thenReturn(validationRows(testSession, null));
+
+        Jws<Claims> mockJws = mock(Jws.class);
+        Claims mockClaims = mock(Claims.class);
+        when(mockJws.getPayload()).thenReturn(mockClaims);
+        when(mockClaims.getExpiration()).thenReturn(new Date(System.currentTimeMillis() + 3600000));
+        when(mockClaims.get("email")).thenReturn(testUser.getEmail());
+        when(mockClaims.getAudience()).thenReturn(Set.of(Consts.JWT_AUDIENCE));
+        when(mockClaims.getIssuer()).thenReturn(Consts.JWT_ISSUER);
+        when(mockClaims.getSubject()).thenReturn(testUser.getId().toString());
+        when(mockClaims.getId()).thenReturn(testJwt.getId().toString());
+        doReturn(mockJws).when(authServiceSpy).parseAndVerifySignature(token);
+        when(jwtRepository.findById(testJwt.getId())).thenReturn(Optional.of(testJwt));
+
+        // Act
+        List<UserRole> first = authServiceSpy.validateToken(token);
+        List<UserRole> second = authServiceSpy.validateToken(token);
+
+        // Assert
+        assertUserRolesMatch(testUserRoles, first);
+        assertUserRolesMatch(first, second);
+        verify(sessionRepository, times(1)).findValidationRows(eq(TokenDigest.sha256Hex(token)), eq(SessionStatus.ACTIVE), any());
+        verify(authServiceSpy, times(1)).parseAndVerifySignature(token);
+    }
+
+    @Test
+    void validateToken_expiredCacheEntryIsIgnored() {
+        // Arrange
+        String token = "valid.test.token";
+        validatedTokenCache.put(TokenDigest.sha256Hex(token), testUserRoles,
+                new Date(System.currentTimeMillis() - 1000), testSession.getExpiredAt());
+        when(sessionRepository.findValidationRows(eq(TokenDigest.sha256Hex(token)), eq(SessionStatus.ACTIVE), any()))
+                .thenReturn(List.of());
+
+        // Act & Assert
+        assertThrows(InvalidTokenException.class, () -> {
+            authService.validateToken(token);
+        });
+    }
+
+    @Test
+    void validateTokens_resolvesBatchWithOneQueryPerTable() throws Exception {
+        // Arrange
+        String header = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(("{\"alg\":\"HS512\",\"kid\":\"" + testJwt.getId() + "\"}").getBytes(StandardCharsets.UTF_8));
+        String token = header + ".payload.signature";
+        String unknownToken = "unknown.test.token";
+        testSession.setToken(token);
+        testSession.setTokenHash(TokenDigest.sha256Hex(token));
+
+        when(sessionRepository.findAllForValidation(anyCollection(), eq(SessionStatus.ACTIVE)))
+                .thenReturn(List.of(testSession));
+        when(userRoleRepository.findAllWithRoleByUserIds(Set.of(testUser.getId()))).thenReturn(testUserRoles);
+        when(jwtRepository.findSecretsByIdIn(Set.of(testJwt.getId())))
+                .thenReturn(List.of(new SigningSecret(testJwt.getId(), testJwt.getSecret())));
+
+        Jws<Claims> mockJws = mock(Jws.class);
+        Claims mockClaims = mock(Claims.class);
+        when(mockJws.getPayload()).thenReturn(mockClaims);
+        when(mockClaims.getExpiration()).thenReturn(new Date(System.currentTimeMillis() + 3600000));
+        when(mockClaims.get("email")).thenReturn(testUser.getEmail());
+        when(mockClaims.getAudience()).thenReturn(Set.of(Consts.JWT_AUDIENCE));
+        when(mockClaims.getIssuer()).thenReturn(Consts.JWT_ISSUER);
+        when(mockClaims.getSubject()).thenReturn(testUser.getId().toString());
+        when(mockClaims.getId()).thenReturn(testJwt.getId().toString());
+        doReturn(mockJws).when(authServiceSpy).parseAndVerifySignature(token);
+
+        // Act
+        List<TokenValidationResult> results = authService.validateTokens(List.of(token, unknownToken, token));
+
+        // Assert
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isValid());
+        assertUserRolesMatch(testUserRoles, results.get(0).userRoles());
+        assertFalse(results.get(1).isValid());
+        assertInstanceOf(InvalidTokenException.class, results.get(1).error());
+        assertTrue(results.get(2).isValid());
+        verify(sessionRepository, times(1)).findAllForValidation(anyCollection(), eq(SessionStatus.ACTIVE));
+        verify(sessionRepository, never()).findValidationRows(any(), any(), any());
+        verify(authServiceSpy, times(1)).parseAndVerifySignature(token);
+        verify(jwtRepository, never()).findById(any());
+    }
+
+    @Test
+    void validateTokens_cachedTokensSkipRepositories() {
+        // Arrange
+        String token = "valid.test.token";
+        validatedTokenCache.put(TokenDigest.sha256Hex(token), testUserRoles,
+                new Date(System.currentTimeMillis() + 3600000), testSession.getExpiredAt());
+
+        // Act
+        List<TokenValidationResult> results = authService.validateTokens(Arrays.asList(token, null));
+
+        // Assert
+        assertTrue(results.get(0).isValid());
+        assertFalse(results.get(1).isValid());
+        verifyNoInteractions(sessionRepository, userRoleRepository, jwtRepository);
+    }
+
+    @Test
+    void validateTokens_rejectsOversizedBatch() {
+        // Arrange
+        List<String> tokens = Collections.nCopies(11, "valid.test.token");
+
+        // Act & Assert
+        assertThrows(BatchTooLargeException.class, () -> {
+            authService.validateTokens(tokens);
+        });
+        verifyNoInteractions(sessionRepository);
+    }
+
+    @Test
+    void validateToken_statelessModeSkipsSessionLookup() throws Exception {
+        // Arrange
+        String token = "valid.test.token";
+        AuthServiceImpl stateless = statelessService();
+        when(revocationList.mightBeRevoked(TokenDigest.sha256Hex(token))).thenReturn(false);
+        Claims claims = profileClaims();
+        Jws<Claims> mockJws = mock(Jws.class);
+        when(mockJws.getPayload()).thenReturn(claims);
+        doReturn(mockJws).when(stateless).parseAndVerifySignature(token);
+
+        // Act
+        List<UserRole> result = stateless.validateToken(token);
+
+        // Assert
+        assertEquals(1, result.size());
+        assertEquals(testUser.getId(), result.getFirst().getUser().getId());
+        assertEquals(testUser.getEmail(), result.getFirst().getUser().getEmail());
+        assertEquals("1234567890", result.getFirst().getUser().getPhoneNumber());
+        assertEquals(testRole.getName(), result.getFirst().getRole().getName());
+        verifyNoInteractions(sessionRepository, userRoleRepository, jwtRepository);
+    }
+
+    @Test
+    void validateToken_statelessModeChecksSessionOnRevocationHit() {
+        // Arrange
+        String token = "revoked.test.token";
+        AuthServiceImpl stateless = statelessService();
+        when(revocationList.mightBeRevoked(TokenDigest.sha256Hex(token))).thenReturn(true);
+        when(sessionRepository.findValidationRows(eq(TokenDigest.sha256Hex(token)), eq(SessionStatus.ACTIVE), any()))
+                .thenReturn(List.of());
+
+        // Act & Assert
+        assertThrows(InvalidTokenException.class, () -> {
+            stateless.validateToken(token);
+        });
+        verify(stateless, never()).parseAndVerifySignature(token);
+    }
+
+    @Test
+    void validateToken_statelessModeRejectsForeignIssuer() throws Exception {
+        // Arrange
+        String token = "valid.test.token";
+        AuthServiceImpl stateless = statelessService();
+        when(revocationList.mightBeRevoked(TokenDigest.sha256Hex(token))).thenReturn(false);
+        Claims claims = mock(Claims.class);
+        when(claims.getExpiration()).thenReturn(new Date(System.currentTimeMillis() + 3600000));
+        when(claims.getAudience()).thenReturn(Set.of(Consts.JWT_AUDIENCE));
+        when(claims.getIssuer()).thenReturn("someone-else");
+        Jws<Claims> mockJws = mock(Jws.class);
+        when(mockJws.getPayload()).thenReturn(claims);
+        doReturn(mockJws).when(stateless).parseAndVerifySignature(token);
+
+        // Act & Assert
+        assertThrows(InvalidTokenException.class, () -> {
+            stateless.validateToken(token);
+        });
+        verifyNoInteractions(sessionRepository);
     }
 
     @Test
     void validateToken_invalidSession() {
         // Arrange
         String token = "invalid.token";
-        when(sessionRepository.findSessionsByTokenEqualsAndStatusIs(token, SessionStatus.ACTIVE))
-                .thenReturn(Optional.empty());
+        when(sessionRepository.findValidationRows(eq(TokenDigest.sha256Hex(token)), eq(SessionStatus.ACTIVE), any()))
+                .thenReturn(List.of());
 
         // Act & Assert
         assertThrows(InvalidTokenException.class, () -> {
@@ -314,6 +861,71 @@ public class AuthServiceTest {
         });
     }
 
+    @Test
+    void validateToken_rejectedTokenIsNotLookedUpAgain() {
+        // Arrange
+        String token = "invalid.token";
+        Session expiredSession = new Session();
+        expiredSession.setExpiredAt(new Date(System.currentTimeMillis() - 1000));
+        when(sessionRepository.findValidationRows(eq(TokenDigest.sha256Hex(token)), eq(SessionStatus.ACTIVE), any()))
+                .thenReturn(validationRows(expiredSession, null));
+
+        // Act
+        InvalidTokenException first = assertThrows(InvalidTokenException.class, () -> authService.validateToken(token));
+        InvalidTokenException second = assertThrows(InvalidTokenException.class, () -> authService.validateToken(token));
+
+        // Assert
+        assertEquals(first.getMessage(), second.getMessage());
+        assertNotSame(first, second);
+        verify(sessionRepository, times(1)).findValidationRows(any(), any(), any());
+    }
+
+    @Test
+    void validateToken_sessionMissIsNotCached() {
+        // Arrange: the session may still be queued for writing on another instance
+        String token = "not.yet.written";
+        when(sessionRepository.findValidationRows(eq(TokenDigest.sha256Hex(token)), eq(SessionStatus.ACTIVE), any()))
+                .thenReturn(List.of());
+
+        // Act
+        assertThrows(SessionNotFoundException.class, () -> authService.validateToken(token));
+        assertThrows(SessionNotFoundException.class, () -> authService.validateToken(token));
+
+        // Assert
+        verify(sessionRepository, times(2)).findValidationRows(any(), any(), any());
+    }
+
+    @Test
+    void validateToken_expiredTokenRejectionKeepsItsType() throws Exception {
+        // Arrange
+        String token = "expired.test.token";
+        testSession.setToken(token);
+        when(sessionRepository.findValidationRows(eq(TokenDigest.sha256Hex(token)), eq(SessionStatus.ACTIVE), any()))
+                .thenReturn(validationRows(testSession, null));
+        doThrow(new TokenExpiredException("Token expired")).when(authServiceSpy).parseAndVerifySignature(token);
+
+        // Act & Assert
+        assertThrows(TokenExpiredException.class, () -> authService.validateToken(token));
+        assertThrows(TokenExpiredException.class, () -> authService.validateToken(token));
+        verify(authServiceSpy, times(1)).parseAndVerifySignature(token);
+    }
+
+    @Test
+    void validateToken_missingUserIsLookedUpAgain() throws Exception {
+        // Arrange
+        String token = "orphaned.test.token";
+        testSession.setToken(token);
+        testUser.setDeleted(true);
+        when(sessionRepository.findValidationRows(eq(TokenDigest.sha256Hex(token)), eq(SessionStatus.ACTIVE), any()))
+                .thenReturn(validationRows(testSession, null));
+        doReturn(mock(Jws.class)).when(authServiceSpy).parseAndVerifySignature(token);
+
+        // Act & Assert
+        assertThrows(UserNotFoundException.class, () -> authService.validateToken(token));
+        assertThrows(UserNotFoundException.class, () -> authService.validateToken(token));
+        verify(sessionRepository, times(2)).findValidationRows(any(), any(), any());
+    }
+
     @Test
     void validateToken_expiredSession() {
         // Arrange
@@ -321,8 +933,8 @@ public class AuthServiceTest {
         Session expiredSession = new Session();
         expiredSession.setExpiredAt(new Date(System.currentTimeMillis() - 1000)); // Expired
 
-        when(sessionRepository.findSessionsByTokenEqualsAndStatusIs(token, SessionStatus.ACTIVE))
-                .thenReturn(Optional.of(expiredSession));
+        when(sessionRepository.findValidationRows(eq(TokenDigest.sha256Hex(token)), eq(SessionStatus.ACTIVE), any()))
+                .thenReturn(validationRows(expiredSession, null));
 
         // Act & Assert
         assertThrows(InvalidTokenException.class, () -> {
@@ -335,8 +947,8 @@ public class AuthServiceTest {
         // Arrange
         String token = "invalid.signature.token";
 
-        when(sessionRepository.findSessionsByTokenEqualsAndStatusIs(token, SessionStatus.ACTIVE))
-                .thenReturn(Optional.of(testSession));
+        when(sessionRepository.findValidationRows(eq(TokenDigest.sha256Hex(token)), eq(SessionStatus.ACTIVE), any()))
+                .thenReturn(validationRows(testSession, null));
 
         doThrow(new InvalidTokenException("Invalid token signature"))
                 .when(authServiceSpy).parseAndVerifySignature(token);
@@ -362,11 +974,8 @@ public class AuthServiceTest {
         expiredTokenSession.setStatus(testSession.getStatus());
         expiredTokenSession.setDeleted(testSession.isDeleted());
 
-        when(sessionRepository.findSessionsByTokenEqualsAndStatusIs(token, SessionStatus.ACTIVE))
-                .thenReturn(Optional.of(expiredTokenSession));
-
-        when(userRoleRepository.findUserRoleByUser_Id(testUser.getId()))
-                .thenReturn(Optional.of(testUserRoles));
+        when(sessionRepository.findValidationRows(eq(TokenDigest.sha256Hex(token)), eq(SessionStatus.ACTIVE), any()))
+                .thenReturn(validationRows(expiredTokenSession, null));
 
         Jws<Claims> mockJws = mock(Jws.class);
         Claims mockClaims = mock(Claims.class);
@@ -389,11 +998,8 @@ public class AuthServiceTest {
         // Arrange
         String token = "invalid.email.token";
 
-        when(sessionRepository.findSessionsByTokenEqualsAndStatusIs(token, SessionStatus.ACTIVE))
-                .thenReturn(Optional.of(testSession));
-
-        when(userRoleRepository.findUserRoleByUser_Id(testUser.getId()))
-                .thenReturn(Optional.of(testUserRoles));
+        when(sessionRepository.findValidationRows(eq(TokenDigest.sha256Hex(token)), eq(SessionStatus.ACTIVE), any()))
+                .thenReturn(validationRows(testSession, null));
 
         Jws<Claims> mockJws = mock(Jws.class);
         Claims mockClaims = mock(Claims.class);
@@ -416,7 +1022,7 @@ public class AuthServiceTest {
         // Arrange
         String token = "valid.test.token";
 
-        when(sessionRepository.findSessionsByTokenEqualsAndStatusIs(token, SessionStatus.ACTIVE))
+        when(sessionRepository.findSessionsByTokenHashEqualsAndStatusIs(TokenDigest.sha256Hex(token), SessionStatus.ACTIVE))
                 .thenReturn(Optional.of(testSession));
 
         doReturn(testUserRoles).when(authServiceSpy).validateToken(token);
@@ -431,13 +1037,86 @@ public class AuthServiceTest {
 
         assertTrue(savedSession.isDeleted());
         assertEquals(SessionStatus.LOGGED_OUT, savedSession.getStatus());
+        verify(revocationList).add(TokenDigest.sha256Hex(token));
+    }
+
+    @Test
+    void logout_evictsValidatedTokenCache() throws Exception {
+        // Arrange
+        String token = "valid.test.token";
+        String tokenHash = TokenDigest.sha256Hex(token);
+        validatedTokenCache.put(tokenHash, testUserRoles, testSession.getExpiredAt(), testSession.getExpiredAt());
+
+        when(sessionRepository.findSessionsByTokenHashEqualsAndStatusIs(TokenDigest.sha256Hex(token), SessionStatus.ACTIVE))
+                .thenReturn(Optional.of(testSession));
+
+        // Act
+        authService.logout(testUser.getEmail(), token);
+
+        // Assert
+        assertTrue(validatedTokenCache.get(tokenHash).isEmpty());
+        verify(sessionRepository).save(testSession);
+    }
+
+    @Test
+    void logout_winsOverValidationThatReadTheSessionBeforeIt() throws Exception {
+        // Arrange: a real revocation list, and a validation that stalls after reading the
+        // still-active session until logout has finished
+        String token = "valid.test.token";
+        String tokenHash = TokenDigest.sha256Hex(token);
+        RevocationList revocations = new RevocationList(sessionRepository, new SimpleMeterRegistry(),
+                ValidationMode.STATEFUL, 1000, 0.001, Duration.ofSeconds(30));
+        AuthServiceImpl service = spy(new AuthServiceImpl(userRepository, passwordEncoder, sessionRepository, jwtRepository,
+                keyLocator, roleCache, userRoleRepository, validatedTokenCache, rejectedTokenCache, revocations,
+                loginRateLimiter, userSigningKeyCache, signingKeyring, sessionWriteBehind, ValidationMode.STATEFUL, 10));
+        when(sessionRepository.findValidationRows(eq(tokenHash), eq(SessionStatus.ACTIVE), any()))
+                .thenReturn(validationRows(testSession, null));
+        when(sessionRepository.findSessionsByTokenHashEqualsAndStatusIs(tokenHash, SessionStatus.ACTIVE))
+                .thenReturn(Optional.of(testSession));
+        Jws<Claims> mockJws = mock(Jws.class);
+        Claims mockClaims = mock(Claims.class);
+        when(mockJws.getPayload()).thenReturn(mockClaims);
+        when(mockClaims.getExpiration()).thenReturn(new Date(System.currentTimeMillis() + 3600000));
+        when(mockClaims.get("email")).thenReturn(testUser.getEmail());
+        when(mockClaims.getAudience()).thenReturn(Set.of(Consts.JWT_AUDIENCE));
+        when(mockClaims.getIssuer()).thenReturn(Consts.JWT_ISSUER);
+        when(mockClaims.getSubject()).thenReturn(testUser.getId().toString());
+        when(mockClaims.getId()).thenReturn(testJwt.getId().toString());
+        when(jwtRepository.findById(testJwt.getId())).thenReturn(Optional.of(testJwt));
+
+        CountDownLatch sessionRead = new CountDownLatch(1);
+        CountDownLatch loggedOut = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            sessionRead.countDown();
+            assertTrue(loggedOut.await(5, TimeUnit.SECONDS));
+            return mockJws;
+        }).when(service).parseAndVerifySignature(token);
+        // Logout's own ownership check would join the stalled validation, so answer it directly
+        Thread logoutThread = Thread.currentThread();
+        doAnswer(invocation -> Thread.currentThread() == logoutThread ? testUserRoles : invocation.callRealMethod())
+                .when(service).validateToken(token);
+
+        // Act
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<List<UserRole>> validation = executor.submit(() -> service.validateToken(token));
+            assertTrue(sessionRead.await(5, TimeUnit.SECONDS));
+            service.logout(testUser.getEmail(), token);
+            loggedOut.countDown();
+            validation.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        assertTrue(validatedTokenCache.get(tokenHash).isEmpty());
     }
 
     @Test
     void logout_invalidToken() {
         // Arrange
         String token = "invalid.token";
-        when(sessionRepository.findSessionsByTokenEqualsAndStatusIs(token, SessionStatus.ACTIVE))
+        when(sessionRepository.findSessionsByTokenHashEqualsAndStatusIs(TokenDigest.sha256Hex(token), SessionStatus.ACTIVE))
                 .thenReturn(Optional.empty());
 
         // Act & Assert
@@ -446,6 +1125,29 @@ public class AuthServiceTest {
         });
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void logout_unwrittenSessionIsRetryable() {
+        // Arrange
+        String token = "valid.test.token";
+        testSession.setTokenHash(TokenDigest.sha256Hex(token));
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+        SessionWriteBehind writeBehind = new SessionWriteBehind(sessionRepository, jdbcTemplate,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), new SimpleMeterRegistry(),
+                SessionDurability.ASYNC, Duration.ofHours(1), 10, Duration.ofSeconds(1));
+        AuthServiceImpl service = new AuthServiceImpl(userRepository, passwordEncoder, sessionRepository, jwtRepository,
+                keyLocator, roleCache, userRoleRepository, validatedTokenCache, rejectedTokenCache, revocationList,
+                loginRateLimiter, userSigningKeyCache, signingKeyring, writeBehind, ValidationMode.STATEFUL, 10);
+        writeBehind.persist(testSession, testUserRoles);
+
+        // Act & Assert
+        assertThrows(SessionWritePendingException.class, () -> service.logout(testUser.getEmail(), token));
+        verify(sessionRepository, never()).findSessionsByTokenHashEqualsAndStatusIs(any(), any());
+        writeBehind.close();
+    }
+
     @Test
     void logout_tokenExpired() {
         // Arrange
@@ -454,7 +1156,7 @@ public class AuthServiceTest {
         expiredSession.setUser(testUser);
         expiredSession.setExpiredAt(new Date(System.currentTimeMillis() - 1000)); // Expired
 
-        when(sessionRepository.findSessionsByTokenEqualsAndStatusIs(token, SessionStatus.ACTIVE))
+        when(sessionRepository.findSessionsByTokenHashEqualsAndStatusIs(TokenDigest.sha256Hex(token), SessionStatus.ACTIVE))
                 .thenReturn(Optional.of(expiredSession));
 
         // Act & Assert
@@ -469,7 +1171,7 @@ public class AuthServiceTest {
         String token = "valid.test.token";
         String wrongEmail = "wrong@example.com";
 
-        when(sessionRepository.findSessionsByTokenEqualsAndStatusIs(token, SessionStatus.ACTIVE))
+        when(sessionRepository.findSessionsByTokenHashEqualsAndStatusIs(TokenDigest.sha256Hex(token), SessionStatus.ACTIVE))
                 .thenReturn(Optional.of(testSession));
 
         // Act & Assert
@@ -477,4 +1179,60 @@ public class AuthServiceTest {
             authService.logout(wrongEmail, token);
         });
     }
+
+    private AuthServiceImpl statelessService() {
+        return spy(new AuthServiceImpl(userRepository, passwordEncoder, sessionRepository, jwtRepository,
+                keyLocator, roleCache, userRoleRepository, validatedTokenCache, rejectedTokenCache, revocationList,
+                loginRateLimiter, userSigningKeyCache, signingKeyring, sessionWriteBehind, ValidationMode.STATELESS, 10));
+    }
+
+    private Claims profileClaims() {
+        Claims claims = mock(Claims.class);
+        when(claims.getExpiration()).thenReturn(new Date(System.currentTimeMillis() + 3600000));
+        when(claims.getAudience()).thenReturn(Set.of(Consts.JWT_AUDIENCE));
+        when(claims.getIssuer()).thenReturn(Consts.JWT_ISSUER);
+        when(claims.getSubject()).thenReturn(testUser.getId().toString());
+        when(claims.get("email")).thenReturn(testUser.getEmail());
+        when(claims.get("given_name")).thenReturn(testUser.getFirstName());
+        when(claims.get("family_name")).thenReturn(testUser.getLastName());
+        when(claims.get("phone_number")).thenReturn(testUser.getPhoneNumber());
+        when(claims.get("roles")).thenReturn(List.of(testRole.getName()));
+        return claims;
+    }
+
+    private List<SessionValidationRow> validationRows(Session session, String signingSecret) {
+        User user = session.getUser() != null ? session.getUser() : new User();
+        List<Role> sessionRoles = session.getRole() != null ? session.getRole() : List.of();
+        List<SessionValidationRow> rows = new ArrayList<>();
+        for (Role sessionRole : sessionRoles) {
+            for (UserRole userRole : testUserRoles) {
+                Role role = userRole.getRole();
+                rows.add(new SessionValidationRow(session.getId(), session.getToken(), session.getExpiredAt(),
+                        session.isDeleted(), session.getStatus(),
+                        user.getId(), user.getEmail(), user.getFirstName(), user.getLastName(),
+                        user.getPhoneNumber(), user.isDeleted(),
+                        sessionRole.getId(), sessionRole.getName(), sessionRole.isDeleted(),
+                        userRole.getId(), role.getId(), role.getName(), role.isDeleted(),
+                        signingSecret));
+            }
+        }
+        if (rows.isEmpty()) {
+            rows.add(new SessionValidationRow(session.getId(), session.getToken(), session.getExpiredAt(),
+                    session.isDeleted(), session.getStatus(),
+                    user.getId(), user.getEmail(), user.getFirstName(), user.getLastName(),
+                    user.getPhoneNumber(), user.isDeleted(),
+                    null, null, null, null, null, null, null, signingSecret));
+        }
+        return rows;
+    }
+
+    private void assertUserRolesMatch(List<UserRole> expected, List<UserRole> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getId(), actual.get(i).getId());
+            assertEquals(expected.get(i).getUser().getId(), actual.get(i).getUser().getId());
+            assertEquals(expected.get(i).getUser().getEmail(), actual.get(i).getUser().getEmail());
+            assertEquals(expected.get(i).getRole().getName(), actual.get(i).getRole().getName());
+        }
+    }
 }
@@ -0,0 +1,189 @@
+package com.vibevault.userservice.services;
+
+import com.vibevault.userservice.dtos.auth.LoginResponseDto;
+import com.vibevault.userservice.exceptions.auth.PhoneAlreadyExistsException;
+import com.vibevault.userservice.models.Role;
+import com.vibevault.userservice.models.User;
+import com.vibevault.userservice.models.UserRole;
+import com.vibevault.userservice.services.cache.RejectedTokenCache;
+import com.vibevault.userservice.services.cache.RevocationList;
+import com.vibevault.userservice.services.cache.RoleCache;
+import com.vibevault.userservice.services.cache.SigningKeyCache;
+import com.vibevault.userservice.services.cache.UserSigningKeyCache;
+import com.vibevault.userservice.services.cache.ValidatedTokenCache;
+import com.vibevault.userservice.services.utils.JwtHeaders;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the JDBC statements validation and signup issue against a real schema.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // Every test logs the same account in during setup
+        "auth.login.rate-limit.enabled=false"
+})
+@Import({AuthServiceImpl.class, KeyLocatorImpl.class, LoginRateLimiter.class, SigningKeyCache.class, ValidatedTokenCache.class, RejectedTokenCache.class, RevocationList.class, UserSigningKeyCache.class, SigningKeyring.class, SessionWriteBehind.class, RoleCache.class,
+        AuthServiceValidationQueryCountTest.TestBeans.class})
+class AuthServiceValidationQueryCountTest {
+
+    @TestConfiguration
+    static class TestBeans {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private AuthServiceImpl authService;
+    @Autowired
+    private KeyLocatorImpl keyLocator;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    private Statistics statistics;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Role role = new Role();
+        role.setName("CUSTOMER");
+        entityManager.persist(role);
+
+        User user = new User();
+        user.setEmail("query.count@vibevault.test");
+        user.setPassword(passwordEncoder.encode("Passw0rd!"));
+        user.setFirstName("Query");
+        user.setLastName("Count");
+        user.setPhoneNumber("9800000001");
+        entityManager.persist(user);
+
+        UserRole userRole = new UserRole();
+        userRole.setUser(user);
+        userRole.setRole(role);
+        userRole.setAssignedAt(new Date());
+        entityManager.persist(userRole);
+        entityManager.flush();
+
+        LoginResponseDto login = authService.login(user.getEmail(), "Passw0rd!");
+        token = login.getToken();
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void validationIssuesOneStatement() {
+        statistics.clear();
+
+        List<UserRole> userRoles = authService.validateToken(token);
+
+        assertEquals("CUSTOMER", userRoles.getFirst().getRole().getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void validationWithColdKeyCacheIssuesOneStatement() {
+        UUID kid = JwtHeaders.keyId(token).orElseThrow();
+        keyLocator.evict(List.of(kid));
+        statistics.clear();
+
+        authService.validateToken(token);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void repeatValidationIssuesNoStatements() {
+        authService.validateToken(token);
+        statistics.clear();
+
+        authService.validateToken(token);
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void batchValidationIssuesOneStatementPerTable() {
+        Role role = new Role();
+        role.setName("ARTIST");
+        entityManager.persist(role);
+        User user = new User();
+        user.setEmail("query.count.batch@vibevault.test");
+        user.setPassword(passwordEncoder.encode("Passw0rd!"));
+        user.setFirstName("Batch");
+        user.setLastName("Count");
+        user.setPhoneNumber("9800000002");
+        entityManager.persist(user);
+        UserRole userRole = new UserRole();
+        userRole.setUser(user);
+        userRole.setRole(role);
+        userRole.setAssignedAt(new Date());
+        entityManager.persist(userRole);
+        entityManager.flush();
+        String otherToken = authService.login(user.getEmail(), "Passw0rd!").getToken();
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        List<TokenValidationResult> results = authService.validateTokens(List.of(token, otherToken, "not.a.token"));
+
+        assertEquals("CUSTOMER", results.get(0).userRoles().getFirst().getRole().getName());
+        assertEquals("ARTIST", results.get(1).userRoles().getFirst().getRole().getName());
+        assertFalse(results.get(2).isValid());
+        assertEquals(3, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void signupIssuesOneProbeAndOneInsertPerTable() {
+        // Warm the role cache, as any earlier signup would have
+        authService.signup("warm.up@vibevault.test", "Passw0rd!", "Warm Up", "9800000010", "CUSTOMER");
+        entityManager.flush();
+        statistics.clear();
+
+        UserRole userRole = authService.signup("new.user@vibevault.test", "Passw0rd!", "New User", "9800000011", "CUSTOMER");
+
+        assertEquals(3, statistics.getPrepareStatementCount());
+        User saved = entityManager.find(User.class, userRole.getUser().getId());
+        assertEquals(saved.getId(), saved.getCreatedBy());
+        assertEquals(saved.getId(), saved.getLastModifiedBy());
+    }
+
+    @Test
+    void signupWithTakenPhoneIsRejectedByTheProbe() {
+        assertThrows(PhoneAlreadyExistsException.class, () ->
+                authService.signup("other@vibevault.test", "Passw0rd!", "Other User", "9800000001", "CUSTOMER"));
+    }
+}
@@ -3,9 +3,11 @@ package com.vibevault.userservice.services;
 import com.vibevault.userservice.exceptions.auth.SigningKeyNotFoundException;
 import com.vibevault.userservice.models.JWT;
 import com.vibevault.userservice.repositories.JWTRepository;
+import com.vibevault.userservice.services.cache.SigningKeyCache;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.ProtectedHeader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,6 +15,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import javax.crypto.SecretKey;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -33,7 +38,10 @@ class KeyLocatorImplTest {
 
     @BeforeEach
     void setUp() {
-        keyLocator = new KeyLocatorImpl(jwtRepository);
+        keyLocator = new KeyLocatorImpl(jwtRepository,
+                new SigningKeyCache(new SimpleMeterRegistry(), 100, Duration.ofHours(1)),
+                new SigningKeyring(SigningMode.KEYRING, Base64.getEncoder().encodeToString(new byte[32]),
+                        Duration.ofDays(1), Duration.ofDays(1)));
     }
 
     @Test
@@ -87,6 +95,29 @@ class KeyLocatorImplTest {
         verify(jwtRepository, never()).findById(any());
     }
 
+    @Test
+    void locatesKeyringKeyWithoutTouchingRepository() {
+        // Arrange
+        when(protectedHeader.getKeyId()).thenReturn(SigningKeyring.KID_PREFIX + System.currentTimeMillis() / Duration.ofDays(1).toMillis());
+
+        // Act
+        SecretKey result = keyLocator.locate(protectedHeader);
+
+        // Assert
+        assertEquals(JWT_SECRET_ALGORITHM, result.getAlgorithm());
+        verifyNoInteractions(jwtRepository);
+    }
+
+    @Test
+    void throwsJwtExceptionWhenKeyringKidIsRetired() {
+        // Arrange
+        when(protectedHeader.getKeyId()).thenReturn(SigningKeyring.KID_PREFIX + "1");
+
+        // Act & Assert
+        assertThrows(JwtException.class, () -> keyLocator.locate(protectedHeader));
+        verifyNoInteractions(jwtRepository);
+    }
+
     @Test
     void throwsSigningKeyNotFoundExceptionWhenKeyDoesNotExist() {
         // Arrange
@@ -124,4 +155,75 @@ class KeyLocatorImplTest {
         assertTrue(exception.getMessage().contains("Could not decode Base64 secret"));
         verify(jwtRepository).findById(keyId);
     }
-}
\ No newline at end of file
+
+    @Test
+    void servesRepeatedLookupsFromCache() {
+        // Arrange
+        UUID keyId = UUID.randomUUID();
+        JWT jwt = new JWT();
+        jwt.setId(keyId);
+        jwt.setSecret("c2VjcmV0S2V5VmFsdWU=");
+
+        when(protectedHeader.getKeyId()).thenReturn(keyId.toString());
+        when(jwtRepository.findById(keyId)).thenReturn(Optional.of(jwt));
+
+        // Act
+        SecretKey first = keyLocator.locate(protectedHeader);
+        SecretKey second = keyLocator.locate(protectedHeader);
+
+        // Assert
+        assertSame(first, second);
+        verify(jwtRepository, times(1)).findById(keyId);
+    }
+
+    @Test
+    void reloadsKeyAfterEviction() {
+        // Arrange
+        UUID keyId = UUID.randomUUID();
+        JWT jwt = new JWT();
+        jwt.setId(keyId);
+        jwt.setSecret("c2VjcmV0S2V5VmFsdWU=");
+
+        when(protectedHeader.getKeyId()).thenReturn(keyId.toString());
+        when(jwtRepository.findById(keyId)).thenReturn(Optional.of(jwt));
+        keyLocator.locate(protectedHeader);
+
+        // Act
+        keyLocator.evict(List.of(keyId));
+        keyLocator.locate(protectedHeader);
+
+        // Assert
+        verify(jwtRepository, times(2)).findById(keyId);
+    }
+
+    @Test
+    void registeredKeyNeedsNoLookup() {
+        // Arrange
+        UUID keyId = UUID.randomUUID();
+        SecretKey key = new javax.crypto.spec.SecretKeySpec(new byte[64], JWT_SECRET_ALGORITHM);
+        when(protectedHeader.getKeyId()).thenReturn(keyId.toString());
+
+        // Act
+        keyLocator.register(keyId, key);
+        SecretKey result = keyLocator.locate(protectedHeader);
+
+        // Assert
+        assertSame(key, result);
+        verify(jwtRepository, never()).findById(any());
+    }
+
+    @Test
+    void doesNotCacheMissingKey() {
+        // Arrange
+        UUID keyId = UUID.randomUUID();
+        when(protectedHeader.getKeyId()).thenReturn(keyId.toString());
+        when(jwtRepository.findById(keyId)).thenReturn(Optional.empty());
+
+        // Act
+        assertThrows(SigningKeyNotFoundException.class, () -> keyLocator.locate(protectedHeader));
+        assertThrows(SigningKeyNotFoundException.class, () -> keyLocator.locate(protectedHeader));
+
+        // Assert
+        verify(jwtRepository, times(2)).findById(keyId);
+    }
+}
@@ -0,0 +1,69 @@
+package com.vibevault.userservice.services;
+
+import com.vibevault.userservice.exceptions.auth.LoginRateLimitedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoginRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private LoginRateLimiter limiter(boolean enabled) {
+        // 3 attempts per account and 5 per IP, each refilled over a minute
+        return new LoginRateLimiter(registry, enabled, 3, Duration.ofMinutes(1), 5, Duration.ofMinutes(1), 1000, clock::get);
+    }
+
+    @Test
+    void allowsBurstThenRejectsPerAccount() {
+        LoginRateLimiter limiter = limiter(true);
+        for (int i = 0; i < 3; i++) {
+            limiter.check("user@example.com", "10.0.0.1");
+        }
+
+        LoginRateLimitedException ex = assertThrows(LoginRateLimitedException.class,
+                () -> limiter.check("USER@example.com ", "10.0.0.2"));
+        assertEquals(20, ex.getRetryAfterSeconds());
+        assertEquals(1, registry.get("auth.login.throttled").tag("key", "email").counter().count());
+    }
+
+    @Test
+    void rejectsPerIpAcrossAccounts() {
+        LoginRateLimiter limiter = limiter(true);
+        for (int i = 0; i < 5; i++) {
+            limiter.check("user" + i + "@example.com", "10.0.0.1");
+        }
+
+        assertThrows(LoginRateLimitedException.class, () -> limiter.check("other@example.com", "10.0.0.1"));
+        limiter.check("other@example.com", "10.0.0.2");
+        assertEquals(1, registry.get("auth.login.throttled").tag("key", "ip").counter().count());
+    }
+
+    @Test
+    void refillsOverTime() {
+        LoginRateLimiter limiter = limiter(true);
+        for (int i = 0; i < 3; i++) {
+            limiter.check("user@example.com", "10.0.0.1");
+        }
+        assertThrows(LoginRateLimitedException.class, () -> limiter.check("user@example.com", "10.0.0.1"));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(20));
+
+        limiter.check("user@example.com", "10.0.0.1");
+        assertThrows(LoginRateLimitedException.class, () -> limiter.check("user@example.com", "10.0.0.1"));
+    }
+
+    @Test
+    void disabledLimiterAllowsEverything() {
+        LoginRateLimiter limiter = limiter(false);
+        for (int i = 0; i < 50; i++) {
+            limiter.check("user@example.com", "10.0.0.1");
+        }
+    }
+}
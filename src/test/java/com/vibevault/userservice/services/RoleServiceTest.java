@@ -4,6 +4,7 @@ import com.vibevault.userservice.exceptions.auth.RoleNotFoundException;
 import com.vibevault.userservice.exceptions.role.RoleAlreadyExistsException;
 import com.vibevault.userservice.models.Role;
 import com.vibevault.userservice.repositories.RoleRepository;
+import com.vibevault.userservice.services.cache.RoleCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,6 +21,8 @@ class RoleServiceTest {
 
     @Mock
     private RoleRepository roleRepository;
+    @Mock
+    private RoleCache roleCache;
 
     @InjectMocks
     private RoleServiceImpl roleService;
@@ -0,0 +1,178 @@
+package com.vibevault.userservice.services;
+
+import com.vibevault.userservice.models.Role;
+import com.vibevault.userservice.models.Session;
+import com.vibevault.userservice.models.SessionStatus;
+import com.vibevault.userservice.models.User;
+import com.vibevault.userservice.repositories.SessionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the sweeper's queries against a real schema, with a chunk size small enough to
+ * exercise the keyset paging.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "auth.session.sweeper.chunk-size=2",
+        "auth.session.sweeper.retention=7d"
+})
+@Import({SessionSweeper.class, SessionSweeperTest.TestBeans.class})
+class SessionSweeperTest {
+
+    @TestConfiguration
+    static class TestBeans {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+    @Autowired
+    private SessionRepository sessionRepository;
+    @Autowired
+    private SessionSweeper sessionSweeper;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private User user;
+    private Role role;
+    // The context, and so the meter registry, is shared by every test in the class
+    private double expiredBefore;
+    private double deletedBefore;
+
+    @BeforeEach
+    void setUp() {
+        role = new Role();
+        role.setName("CUSTOMER");
+        entityManager.persist(role);
+        user = new User();
+        user.setEmail("sweeper@vibevault.test");
+        user.setPassword("{noop}unused");
+        user.setPhoneNumber("9800000003");
+        entityManager.persist(user);
+        expiredBefore = counter("auth.session.sweeper.expired");
+        deletedBefore = counter("auth.session.sweeper.deleted");
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    private double expiredCount() {
+        return counter("auth.session.sweeper.expired") - expiredBefore;
+    }
+
+    private double deletedCount() {
+        return counter("auth.session.sweeper.deleted") - deletedBefore;
+    }
+
+    private UUID session(SessionStatus status, Duration expiresIn) {
+        return session(status, new Date(System.currentTimeMillis() + expiresIn.toMillis()));
+    }
+
+    private UUID session(SessionStatus status, Date expiredAt) {
+        Session session = new Session();
+        session.setUser(user);
+        session.setRole(List.of(role));
+        session.setToken("token-" + UUID.randomUUID());
+        session.setStatus(status);
+        session.setExpiredAt(expiredAt);
+        entityManager.persist(session);
+        return session.getId();
+    }
+
+    @Test
+    void sweepExpiresOverdueSessionsAndDeletesOldOnes() {
+        UUID live = session(SessionStatus.ACTIVE, Duration.ofHours(1));
+        List<UUID> overdue = List.of(
+                session(SessionStatus.ACTIVE, Duration.ofMinutes(-1)),
+                session(SessionStatus.ACTIVE, Duration.ofHours(-2)),
+                session(SessionStatus.ACTIVE, Duration.ofDays(-1)));
+        UUID loggedOut = session(SessionStatus.LOGGED_OUT, Duration.ofMinutes(-5));
+        List<UUID> old = List.of(
+                session(SessionStatus.EXPIRED, Duration.ofDays(-8)),
+                session(SessionStatus.LOGGED_OUT, Duration.ofDays(-9)),
+                session(SessionStatus.ACTIVE, Duration.ofDays(-30)));
+        entityManager.flush();
+        entityManager.clear();
+
+        sessionSweeper.sweep();
+        entityManager.clear();
+
+        assertEquals(SessionStatus.ACTIVE, sessionRepository.findById(live).orElseThrow().getStatus());
+        for (UUID id : overdue) {
+            assertEquals(SessionStatus.EXPIRED, sessionRepository.findById(id).orElseThrow().getStatus());
+        }
+        assertEquals(SessionStatus.LOGGED_OUT, sessionRepository.findById(loggedOut).orElseThrow().getStatus());
+        for (UUID id : old) {
+            assertTrue(sessionRepository.findById(id).isEmpty());
+        }
+        assertEquals(4, expiredCount());
+        assertEquals(3, deletedCount());
+    }
+
+    @Test
+    void sweepPagesThroughTiedExpiriesAcrossChunks() {
+        // Random ids interleave with the expiries; three sessions share each expiry, so
+        // with a chunk size of 2 a tie always straddles a page boundary
+        long base = System.currentTimeMillis() / 1000 * 1000;
+        Date recent = new Date(base - Duration.ofHours(1).toMillis());
+        Date earlier = new Date(base - Duration.ofHours(3).toMillis());
+        Date old = new Date(base - Duration.ofDays(10).toMillis());
+        List<UUID> overdue = new ArrayList<>();
+        List<UUID> stale = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            overdue.add(session(SessionStatus.ACTIVE, recent));
+            overdue.add(session(SessionStatus.ACTIVE, earlier));
+            stale.add(session(SessionStatus.EXPIRED, old));
+            stale.add(session(SessionStatus.LOGGED_OUT, old));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        sessionSweeper.sweep();
+        entityManager.clear();
+
+        for (UUID id : overdue) {
+            assertEquals(SessionStatus.EXPIRED, sessionRepository.findById(id).orElseThrow().getStatus());
+        }
+        for (UUID id : stale) {
+            assertTrue(sessionRepository.findById(id).isEmpty());
+        }
+        assertEquals(6, expiredCount());
+        assertEquals(6, deletedCount());
+    }
+
+    @Test
+    void sweepWithNothingToDoLeavesSessionsAlone() {
+        UUID live = session(SessionStatus.ACTIVE, Duration.ofHours(1));
+        entityManager.flush();
+        entityManager.clear();
+
+        sessionSweeper.sweep();
+        entityManager.clear();
+
+        assertEquals(SessionStatus.ACTIVE, sessionRepository.findById(live).orElseThrow().getStatus());
+        assertEquals(0, deletedCount());
+    }
+}
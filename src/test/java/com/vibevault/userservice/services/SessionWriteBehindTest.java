@@ -0,0 +1,204 @@
+package com.vibevault.userservice.services;
+
+import com.vibevault.userservice.models.Role;
+import com.vibevault.userservice.models.Session;
+import com.vibevault.userservice.models.SessionStatus;
+import com.vibevault.userservice.models.User;
+import com.vibevault.userservice.models.UserRole;
+import com.vibevault.userservice.repositories.SessionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SessionWriteBehindTest {
+
+    @Mock
+    private SessionRepository sessionRepository;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SessionWriteBehind writeBehind;
+    private User user;
+    private Role role;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(UUID.randomUUID());
+        role = new Role();
+        role.setId(UUID.randomUUID());
+        role.setName("CUSTOMER");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (writeBehind != null) {
+            writeBehind.close();
+        }
+    }
+
+    private SessionWriteBehind writeBehind(SessionDurability durability, Duration flushInterval) {
+        return writeBehind(durability, flushInterval, Duration.ofSeconds(5));
+    }
+
+    private SessionWriteBehind writeBehind(SessionDurability durability, Duration flushInterval, Duration groupCommitTimeout) {
+        writeBehind = new SessionWriteBehind(sessionRepository, jdbcTemplate,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), new SimpleMeterRegistry(),
+                durability, flushInterval, 100, groupCommitTimeout);
+        return writeBehind;
+    }
+
+    private Session session(String tokenHash) {
+        Session session = new Session();
+        session.setUser(user);
+        session.setRole(List.of(role));
+        session.setToken("token-" + tokenHash);
+        session.setTokenHash(tokenHash);
+        session.setExpiredAt(new Date(System.currentTimeMillis() + 86400000));
+        session.setStatus(SessionStatus.ACTIVE);
+        session.setCreatedBy(user.getId());
+        session.setLastModifiedBy(user.getId());
+        return session;
+    }
+
+    private List<UserRole> userRoles() {
+        UserRole userRole = new UserRole();
+        userRole.setUser(user);
+        userRole.setRole(role);
+        return List.of(userRole);
+    }
+
+    @Test
+    void syncModeSavesThroughRepository() {
+        Session session = session("a");
+        when(sessionRepository.save(session)).thenReturn(session);
+
+        writeBehind(SessionDurability.SYNC, Duration.ofHours(1)).persist(session, userRoles());
+
+        verify(sessionRepository).save(session);
+        verifyNoInteractions(jdbcTemplate);
+        assertTrue(writeBehind.pending("a").isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void asyncSessionsArePendingUntilWrittenInOneBatch() {
+        SessionWriteBehind writer = writeBehind(SessionDurability.ASYNC, Duration.ofHours(1));
+
+        Session first = writer.persist(session("a"), userRoles());
+        writer.persist(session("b"), userRoles());
+        writer.persist(session("c"), userRoles());
+
+        assertNotNull(first.getId());
+        assertEquals(first, writer.pending("a").orElseThrow().session());
+        assertEquals(role, writer.pending("a").orElseThrow().userRoles().getFirst().getRole());
+        verifyNoInteractions(jdbcTemplate);
+
+        writer.flush();
+
+        verify(jdbcTemplate).batchUpdate(eq(SessionWriteBehind.INSERT_SESSION), argThat((Collection<?> rows) -> rows.size() == 3),
+                eq(3), any(ParameterizedPreparedStatementSetter.class));
+        verify(jdbcTemplate).batchUpdate(eq(SessionWriteBehind.INSERT_SESSION_ROLE), argThat((List<Object[]> rows) -> rows.size() == 3));
+        verifyNoInteractions(sessionRepository);
+        assertTrue(writer.pending("a").isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void groupCommitReturnsOnceTheBatchIsWritten() {
+        SessionWriteBehind writer = writeBehind(SessionDurability.GROUP_COMMIT, Duration.ofMillis(5));
+
+        writer.persist(session("a"), userRoles());
+
+        verify(jdbcTemplate).batchUpdate(eq(SessionWriteBehind.INSERT_SESSION), anyCollection(), eq(1),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertTrue(writer.pending("a").isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void groupCommitFailsTheLoginWhenTheBatchFails() {
+        when(jdbcTemplate.batchUpdate(eq(SessionWriteBehind.INSERT_SESSION), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+        SessionWriteBehind writer = writeBehind(SessionDurability.GROUP_COMMIT, Duration.ofMillis(5));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> writer.persist(session("a"), userRoles()));
+        assertTrue(writer.pending("a").isEmpty());
+    }
+
+    @Test
+    void groupCommitTimeoutCancelsTheQueuedSession() {
+        SessionWriteBehind writer = writeBehind(SessionDurability.GROUP_COMMIT, Duration.ofHours(1), Duration.ofMillis(20));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> writer.persist(session("a"), userRoles()));
+        assertTrue(writer.pending("a").isEmpty());
+
+        writer.flush();
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedAsyncWritesAreRetriedThenDropped() {
+        when(jdbcTemplate.batchUpdate(eq(SessionWriteBehind.INSERT_SESSION), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+        SessionWriteBehind writer = writeBehind(SessionDurability.ASYNC, Duration.ofHours(1));
+        writer.persist(session("a"), userRoles());
+
+        writer.flush();
+        writer.flush();
+        assertTrue(writer.pending("a").isPresent());
+
+        writer.flush();
+        assertTrue(writer.pending("a").isEmpty());
+        verify(jdbcTemplate, times(3)).batchUpdate(eq(SessionWriteBehind.INSERT_SESSION), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void flushIfPendingWritesOnlyWhenTheSessionIsQueued() {
+        SessionWriteBehind writer = writeBehind(SessionDurability.ASYNC, Duration.ofHours(1));
+
+        writer.flushIfPending("a");
+        verifyNoInteractions(jdbcTemplate);
+
+        writer.persist(session("a"), userRoles());
+        assertTrue(writer.flushIfPending("a"));
+        assertTrue(writer.pending("a").isEmpty());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flushIfPendingReportsASessionLeftQueued() {
+        when(jdbcTemplate.batchUpdate(eq(SessionWriteBehind.INSERT_SESSION), anyCollection(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+        SessionWriteBehind writer = writeBehind(SessionDurability.ASYNC, Duration.ofHours(1));
+        writer.persist(session("a"), userRoles());
+
+        assertFalse(writer.flushIfPending("a"));
+        assertTrue(writer.pending("a").isPresent());
+    }
+}
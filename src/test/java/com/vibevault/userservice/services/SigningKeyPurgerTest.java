@@ -0,0 +1,90 @@
+package com.vibevault.userservice.services;
+
+import com.vibevault.userservice.repositories.JWTRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static com.vibevault.userservice.services.Consts.JWT_EXPIRATION_TIME;
+import static com.vibevault.userservice.services.Consts.JWT_SECRET_EXPIRATION_TIME_IN_DAYS;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SigningKeyPurgerTest {
+
+    @Mock
+    private JWTRepository jwtRepository;
+    @Mock
+    private KeyLocatorImpl keyLocator;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private SigningKeyPurger purger(boolean enabled) {
+        return new SigningKeyPurger(jwtRepository, keyLocator, transactionManager, meterRegistry,
+                enabled, 2, Duration.ofHours(1));
+    }
+
+    @Test
+    void purgeDeletesRetiredKeysInChunksAndEvictsThem() {
+        UUID first = new UUID(0, 1);
+        UUID second = new UUID(0, 2);
+        UUID third = new UUID(0, 3);
+        when(jwtRepository.findRetiredIdsCreatedBefore(any(Date.class), eq(new UUID(0, 0)), eq(Limit.of(2))))
+                .thenReturn(List.of(first, second));
+        when(jwtRepository.findRetiredIdsCreatedBefore(any(Date.class), eq(second), eq(Limit.of(2))))
+                .thenReturn(List.of(third));
+        when(jwtRepository.deleteRetiredByIdIn(List.of(first, second))).thenReturn(2);
+        when(jwtRepository.deleteRetiredByIdIn(List.of(third))).thenReturn(1);
+
+        purger(true).purge();
+
+        verify(keyLocator).evict(List.of(first, second));
+        verify(keyLocator).evict(List.of(third));
+        assertEquals(3, meterRegistry.get("auth.signing-key.purged").counter().count());
+    }
+
+    @Test
+    void purgeWaitsUntilNoPodCanStillSignWithTheKey() {
+        long before = System.currentTimeMillis();
+        when(jwtRepository.findRetiredIdsCreatedBefore(any(Date.class), any(UUID.class), any(Limit.class))).thenReturn(List.of());
+
+        purger(true).purge();
+
+        ArgumentCaptor<Date> cutoff = ArgumentCaptor.forClass(Date.class);
+        verify(jwtRepository).findRetiredIdsCreatedBefore(cutoff.capture(), any(UUID.class), any(Limit.class));
+        long retention = Duration.ofDays(JWT_SECRET_EXPIRATION_TIME_IN_DAYS).toMillis()
+                + JWT_EXPIRATION_TIME + Duration.ofHours(1).toMillis();
+        assertTrue(cutoff.getValue().getTime() >= before - retention);
+        assertTrue(cutoff.getValue().getTime() <= System.currentTimeMillis() - retention);
+        verify(jwtRepository, never()).deleteRetiredByIdIn(anyCollection());
+        verifyNoInteractions(keyLocator);
+    }
+
+    @Test
+    void disabledPurgeDoesNothing() {
+        purger(false).purge();
+
+        verifyNoInteractions(jwtRepository, keyLocator);
+    }
+}
@@ -0,0 +1,84 @@
+package com.vibevault.userservice.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SigningKeyringTest {
+    private static final String MASTER_SECRET = Base64.getEncoder().encodeToString(
+            "0123456789abcdef0123456789abcdef".getBytes());
+    private static final Duration ROTATION = Duration.ofHours(1);
+    private static final Duration OVERLAP = Duration.ofMinutes(30);
+    private static final Instant EPOCH_10 = Instant.ofEpochMilli(10 * ROTATION.toMillis());
+
+    private SigningKeyring keyringAt(Instant now) {
+        return new SigningKeyring(SigningMode.KEYRING, MASTER_SECRET, ROTATION, OVERLAP, Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    @Test
+    void currentKeyIsNamedAfterItsEpoch() {
+        SigningKeyring keyring = keyringAt(EPOCH_10.plus(Duration.ofMinutes(5)));
+
+        SigningKeyring.SigningKey current = keyring.current();
+
+        assertEquals("kr-10", current.kid());
+        assertEquals(current.key(), keyring.verificationKey("kr-10").orElseThrow());
+    }
+
+    @Test
+    void podsWithTheSameMasterSecretDeriveTheSameKey() {
+        SigningKeyring first = keyringAt(EPOCH_10);
+        SigningKeyring second = keyringAt(EPOCH_10.plus(Duration.ofMinutes(59)));
+
+        assertEquals(first.current(), second.current());
+    }
+
+    @Test
+    void rotationProducesANewKey() {
+        SigningKeyring.SigningKey before = keyringAt(EPOCH_10).current();
+        SigningKeyring.SigningKey after = keyringAt(EPOCH_10.plus(ROTATION)).current();
+
+        assertEquals("kr-11", after.kid());
+        assertNotEquals(before.key(), after.key());
+    }
+
+    @Test
+    void previousKeyVerifiesOnlyDuringOverlap() {
+        assertTrue(keyringAt(EPOCH_10.plus(OVERLAP).minusMillis(1)).verificationKey("kr-9").isPresent());
+        assertTrue(keyringAt(EPOCH_10.plus(OVERLAP)).verificationKey("kr-9").isEmpty());
+    }
+
+    @Test
+    void futureKeysAreOnlyAcceptedWithinClockSkew() {
+        SigningKeyring keyring = keyringAt(EPOCH_10.plus(ROTATION).minusSeconds(30));
+
+        assertTrue(keyring.verificationKey("kr-11").isPresent());
+        assertTrue(keyring.verificationKey("kr-12").isEmpty());
+    }
+
+    @Test
+    void rejectsMalformedAndForeignKids() {
+        SigningKeyring keyring = keyringAt(EPOCH_10);
+
+        assertTrue(keyring.verificationKey("kr-abc").isEmpty());
+        assertTrue(keyring.verificationKey("10").isEmpty());
+        assertFalse(SigningKeyring.isKeyringKid("6f1c1b0e-0000-0000-0000-000000000000"));
+    }
+
+    @Test
+    void keyringModeRequiresAStrongMasterSecret() {
+        String shortSecret = Base64.getEncoder().encodeToString(new byte[16]);
+
+        assertThrows(IllegalStateException.class,
+                () -> new SigningKeyring(SigningMode.KEYRING, "", ROTATION, OVERLAP));
+        assertThrows(IllegalStateException.class,
+                () -> new SigningKeyring(SigningMode.KEYRING, shortSecret, ROTATION, OVERLAP));
+        assertFalse(new SigningKeyring(SigningMode.PER_USER, "", ROTATION, OVERLAP).isSigning());
+    }
+}
@@ -0,0 +1,189 @@
+package com.vibevault.userservice.services;
+
+import com.vibevault.userservice.models.Role;
+import com.vibevault.userservice.repositories.UserRepository;
+import com.vibevault.userservice.repositories.projections.UserIdentity;
+import com.vibevault.userservice.services.cache.RoleCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserImportServiceImplTest {
+
+    private static final String CSV_HEADER = "email,password,name,phone,role\n";
+
+    @Mock
+    private UserRepository userRepository;
+    @Mock
+    private RoleCache roleCache;
+    @Mock
+    private PasswordEncoder passwordEncoder;
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private UserImportServiceImpl importService;
+    private final List<UserImportError> errors = new ArrayList<>();
+    private final UUID adminId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        Role customer = new Role();
+        customer.setId(UUID.randomUUID());
+        customer.setName("CUSTOMER");
+        lenient().when(roleCache.findByName("CUSTOMER")).thenReturn(Optional.of(customer));
+        lenient().when(roleCache.findByName("GHOST")).thenReturn(Optional.empty());
+        lenient().when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> "hashed-" + invocation.getArgument(0));
+        lenient().when(userRepository.findIdentitiesByEmailInOrPhoneNumberIn(anyCollection(), anyCollection()))
+                .thenReturn(List.of());
+        importService = service(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.close();
+    }
+
+    private UserImportServiceImpl service(int chunkSize) {
+        return new UserImportServiceImpl(userRepository, roleCache, passwordEncoder, jdbcTemplate,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), new SimpleMeterRegistry(),
+                chunkSize, 2);
+    }
+
+    private UserImportSummary importCsv(String body) {
+        return importService.importUsers(new StringReader(body), UserImportFormat.CSV, adminId, errors::add);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<Object[]>> batches(String sql) {
+        ArgumentCaptor<List<Object[]>> captor = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, atLeast(0)).batchUpdate(eq(sql), captor.capture());
+        return captor.getAllValues();
+    }
+
+    @Test
+    void importsCsvInOneBatchPerTablePerChunk() {
+        UserImportSummary summary = importCsv(CSV_HEADER
+                + "a@x.com,pw1,Ann Lee,111,CUSTOMER\n"
+                + "b@x.com,pw2,\"Bo, Jr\",222,CUSTOMER\n"
+                + "\n"
+                + "c@x.com,pw3,Cy,333,CUSTOMER\n");
+
+        assertEquals(new UserImportSummary(3, 3, 0), summary);
+        assertTrue(errors.isEmpty());
+        List<List<Object[]>> users = batches(UserImportServiceImpl.INSERT_USER);
+        assertEquals(List.of(2, 1), users.stream().map(List::size).toList());
+        Object[] ann = users.get(0).get(0);
+        assertEquals("Ann", ann[6]);
+        assertEquals("Lee", ann[7]);
+        assertEquals("a@x.com", ann[8]);
+        assertEquals("hashed-pw1", ann[9]);
+        assertEquals("Bo,", users.get(0).get(1)[6]);
+        assertEquals(2, batches(UserImportServiceImpl.INSERT_USER_ROLE).size());
+        verify(userRepository, times(2)).findIdentitiesByEmailInOrPhoneNumberIn(anyCollection(), anyCollection());
+    }
+
+    @Test
+    void importsNdjsonAndReportsMalformedLines() {
+        UserImportSummary summary = importService.importUsers(new StringReader(
+                "{\"email\":\"a@x.com\",\"password\":\"pw\",\"name\":\"Ann\",\"phone\":\"111\",\"role\":\"CUSTOMER\"}\n"
+                        + "{not json\n"
+                        + "[1,2]\n"), UserImportFormat.NDJSON, adminId, errors::add);
+
+        assertEquals(new UserImportSummary(3, 1, 2), summary);
+        assertEquals(List.of(2L, 3L), errors.stream().map(UserImportError::line).toList());
+    }
+
+    @Test
+    void keepsSurroundingSpacesInPasswords() {
+        importCsv(CSV_HEADER + " a@x.com , \" pw1 \" ,Ann,111,CUSTOMER\n");
+        importService.importUsers(new StringReader(
+                "{\"email\":\" b@x.com \",\"password\":\" pw2 \",\"name\":\"Bo\",\"phone\":\"222\",\"role\":\"CUSTOMER\"}\n"),
+                UserImportFormat.NDJSON, adminId, errors::add);
+
+        assertTrue(errors.isEmpty());
+        List<List<Object[]>> users = batches(UserImportServiceImpl.INSERT_USER);
+        assertEquals("a@x.com", users.get(0).get(0)[8]);
+        assertEquals("hashed- pw1 ", users.get(0).get(0)[9]);
+        assertEquals("b@x.com", users.get(1).get(0)[8]);
+        assertEquals("hashed- pw2 ", users.get(1).get(0)[9]);
+    }
+
+    @Test
+    void rejectsCsvWithoutRequiredColumns() {
+        UserImportSummary summary = importCsv("email,password\na@x.com,pw\n");
+
+        assertEquals(new UserImportSummary(0, 0, 1), summary);
+        assertEquals(1L, errors.get(0).line());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void reportsInvalidRowsAndDuplicatesWithinTheFile() {
+        importService = service(10);
+        UserImportSummary summary = importCsv(CSV_HEADER
+                + "a@x.com,pw,Ann,111,CUSTOMER\n"
+                + "A@X.com,pw,Ann,112,CUSTOMER\n"
+                + "b@x.com,pw,Bo,111,CUSTOMER\n"
+                + "c@x.com,,Cy,333,CUSTOMER\n"
+                + "d@x.com,pw,Di,444,GHOST\n");
+
+        assertEquals(new UserImportSummary(5, 1, 4), summary);
+        assertEquals(List.of("Duplicate email in file", "Duplicate phone number in file",
+                        "Password cannot be empty", "Role not found: GHOST"),
+                errors.stream().map(UserImportError::message).toList());
+        verify(passwordEncoder, times(1)).encode(anyString());
+    }
+
+    @Test
+    void rejectsRowsThatAlreadyExistWithoutHashingThem() {
+        importService = service(10);
+        when(userRepository.findIdentitiesByEmailInOrPhoneNumberIn(anyCollection(), anyCollection()))
+                .thenReturn(List.of(new UserIdentity("A@x.com", "999"), new UserIdentity("z@x.com", "222")));
+
+        UserImportSummary summary = importCsv(CSV_HEADER
+                + "a@x.com,pw,Ann,111,CUSTOMER\n"
+                + "b@x.com,pw,Bo,222,CUSTOMER\n"
+                + "c@x.com,pw,Cy,333,CUSTOMER\n");
+
+        assertEquals(new UserImportSummary(3, 1, 2), summary);
+        assertEquals(List.of("Email already exists", "Phone number already exists"),
+                errors.stream().map(UserImportError::message).toList());
+        verify(passwordEncoder, times(1)).encode("pw");
+    }
+
+    @Test
+    void fallsBackToRowInsertsWhenTheBatchHitsAConstraint() {
+        when(jdbcTemplate.batchUpdate(eq(UserImportServiceImpl.INSERT_USER), anyList()))
+                .thenThrow(new DataIntegrityViolationException("uc_users_email"))
+                .thenReturn(new int[]{1})
+                .thenThrow(new DataIntegrityViolationException("uc_users_email"));
+
+        UserImportSummary summary = importCsv(CSV_HEADER
+                + "a@x.com,pw,Ann,111,CUSTOMER\n"
+                + "b@x.com,pw,Bo,222,CUSTOMER\n");
+
+        assertEquals(new UserImportSummary(2, 1, 1), summary);
+        assertEquals("b@x.com", errors.get(0).email());
+    }
+}
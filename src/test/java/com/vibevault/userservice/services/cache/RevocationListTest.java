@@ -0,0 +1,134 @@
+package com.vibevault.userservice.services.cache;
+
+import com.vibevault.userservice.models.SessionStatus;
+import com.vibevault.userservice.repositories.SessionRepository;
+import com.vibevault.userservice.services.ValidationMode;
+import com.vibevault.userservice.services.utils.TokenDigest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RevocationListTest {
+
+    @Mock
+    private SessionRepository sessionRepository;
+
+    private RevocationList revocationList(ValidationMode mode) {
+        return new RevocationList(sessionRepository, new SimpleMeterRegistry(), mode, 1000, 0.001, Duration.ofSeconds(30));
+    }
+
+    @Test
+    void rebuildLoadsRevokedSessions() {
+        String revoked = TokenDigest.sha256Hex("revoked.token");
+        when(sessionRepository.findRevokedTokenHashes(anyCollection(), any(Date.class), any(Date.class)))
+                .thenReturn(List.of(revoked));
+        RevocationList revocationList = revocationList(ValidationMode.STATELESS);
+
+        revocationList.rebuild();
+
+        assertTrue(revocationList.mightBeRevoked(revoked));
+        assertFalse(revocationList.mightBeRevoked(TokenDigest.sha256Hex("active.token")));
+        verify(sessionRepository).findRevokedTokenHashes(
+                eq(List.of(SessionStatus.LOGGED_OUT, SessionStatus.BLACKLISTED)), eq(new Date(0)), any(Date.class));
+    }
+
+    @Test
+    void refreshReadsOnlyRecentRevocationsWithOverlap() {
+        String later = TokenDigest.sha256Hex("later.token");
+        when(sessionRepository.findRevokedTokenHashes(anyCollection(), any(Date.class), any(Date.class)))
+                .thenReturn(List.of())
+                .thenReturn(List.of(later));
+        RevocationList revocationList = revocationList(ValidationMode.STATELESS);
+        long before = System.currentTimeMillis();
+        revocationList.rebuild();
+
+        revocationList.refresh();
+
+        ArgumentCaptor<Date> since = ArgumentCaptor.forClass(Date.class);
+        verify(sessionRepository, times(2)).findRevokedTokenHashes(anyCollection(), since.capture(), any(Date.class));
+        long expectedSince = before - Duration.ofSeconds(30).toMillis();
+        assertTrue(since.getAllValues().get(1).getTime() >= expectedSince);
+        assertTrue(since.getAllValues().get(1).getTime() < System.currentTimeMillis() - Duration.ofSeconds(29).toMillis());
+        assertTrue(revocationList.mightBeRevoked(later));
+    }
+
+    @Test
+    void locallyAddedRevocationIsVisibleImmediately() {
+        RevocationList revocationList = revocationList(ValidationMode.STATELESS);
+        String tokenHash = TokenDigest.sha256Hex("logged.out.token");
+
+        revocationList.add(tokenHash);
+
+        assertTrue(revocationList.mightBeRevoked(tokenHash));
+    }
+
+    @Test
+    void logoutDuringRebuildSurvivesTheSwap() {
+        RevocationList revocationList = revocationList(ValidationMode.STATELESS);
+        String tokenHash = TokenDigest.sha256Hex("logged.out.mid.rebuild");
+        when(sessionRepository.findRevokedTokenHashes(anyCollection(), any(Date.class), any(Date.class)))
+                .thenAnswer(invocation -> {
+                    revocationList.add(tokenHash);
+                    return List.of();
+                });
+
+        revocationList.rebuild();
+
+        assertTrue(revocationList.mightBeRevoked(tokenHash));
+    }
+
+    @Test
+    void overlappingRefreshDoesNotRecountEntries() {
+        String revoked = TokenDigest.sha256Hex("revoked.token");
+        when(sessionRepository.findRevokedTokenHashes(anyCollection(), any(Date.class), any(Date.class)))
+                .thenReturn(List.of(revoked));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RevocationList revocationList = new RevocationList(sessionRepository, meterRegistry, ValidationMode.STATELESS,
+                1000, 0.001, Duration.ofSeconds(30));
+
+        revocationList.rebuild();
+        revocationList.refresh();
+
+        assertEquals(1, meterRegistry.get("auth.revocation.filter.entries").gauge().value());
+    }
+
+    @Test
+    void statefulModeNeverQueries() {
+        RevocationList revocationList = revocationList(ValidationMode.STATEFUL);
+
+        revocationList.rebuild();
+        revocationList.refresh();
+
+        verifyNoInteractions(sessionRepository);
+    }
+
+    @Test
+    void falsePositiveRateStaysNearConfiguredBound() {
+        RevocationList revocationList = revocationList(ValidationMode.STATELESS);
+        for (int i = 0; i < 1000; i++) {
+            revocationList.add(TokenDigest.sha256Hex("revoked-" + i));
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (revocationList.mightBeRevoked(TokenDigest.sha256Hex("active-" + i))) {
+                falsePositives++;
+            }
+        }
+
+        // 0.1% configured; allow generous slack so the test is not flaky
+        assertTrue(falsePositives < 500, "false positives: " + falsePositives);
+    }
+}
@@ -0,0 +1,25 @@
+package com.vibevault.userservice.services.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsvLineTest {
+
+    @Test
+    void splitsQuotedAndUnquotedFields() {
+        assertEquals(List.of("a", "b, c", "say \"hi\"", ""), CsvLine.parse("a,\"b, c\",\"say \"\"hi\"\"\","));
+    }
+
+    @Test
+    void trimsOnlyWhitespaceOutsideQuotes() {
+        assertEquals(List.of("a b", "  pass word ", ""), CsvLine.parse("  a b  , \"  pass word \"  ,\"\"  "));
+    }
+
+    @Test
+    void rejectsUnterminatedQuote() {
+        assertThrows(IllegalArgumentException.class, () -> CsvLine.parse("a,\"b"));
+    }
+}